@@ -0,0 +1,77 @@
+package com.example.healthcare_appointment_api.security;
+
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * The whole filter pass for an authenticated request. In the default mode the user lookup is a
+ * stub-only Mockito mock, so the numbers exclude the database round trip the real lookup costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    @Param({"true", "false"})
+    public boolean stateless;
+
+    @Param({"10000", "0"})
+    public int cacheMaxEntries;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        java.util.logging.Logger.getLogger(JwtAuthenticationFilter.class.getName()).setLevel(java.util.logging.Level.WARNING);
+        JwtUtil jwtUtil = JwtUtilTest.jwtUtil(3_600_000, cacheMaxEntries);
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("patient1");
+        user.setRoles(Set.of("ROLE_PATIENT"));
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findByUsernameOnPrimary("patient1")).thenReturn(Optional.of(user));
+        TokenRevocationList revocationList = new TokenRevocationList(userRepository, 3_600_000, 1 << 16);
+        filter = new JwtAuthenticationFilter(jwtUtil, userRepository, revocationList, stateless, new SimpleMeterRegistry());
+
+        request = new MockHttpServletRequest("GET", "/api/appointments");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(7L, "patient1", "PATIENT"));
+        response = new MockHttpServletResponse();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+        request.removeAttribute(JwtAuthenticationFilter.class.getName() + ".FILTERED");
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        filter.doFilter(request, response, CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.healthcare_appointment_api.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+    private JwtUtil jwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = JwtUtilTest.jwtUtil(3_600_000, 10_000);
+        uncachedJwtUtil = JwtUtilTest.jwtUtil(3_600_000, 0);
+        token = jwtUtil.generateToken(7L, "patient1", "PATIENT");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(7L, "patient1", "PATIENT");
+    }
+
+    @Benchmark
+    public Claims getClaimsFromToken() {
+        return jwtUtil.getClaimsFromToken(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyTokenCached() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyTokenUncached() {
+        return uncachedJwtUtil.verifyToken(token);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes the entity graph POST /api/appointments returns: appointment, patient, and the doctor
+ * with its user. The user holds no reference back to its doctor profile, so the graph ends there.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AppointmentSerializationBenchmark {
+    private ObjectMapper objectMapper;
+    private Appointment appointment;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        User doctorUser = new User();
+        doctorUser.setId(2L);
+        doctorUser.setUsername("doctor1");
+        doctorUser.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5m4Z5m4Z5m4Z5m4Z5m4Z5m4");
+        doctorUser.setRoles(Set.of("ROLE_DOCTOR"));
+        Doctor doctor = new Doctor();
+        doctor.setId(1L);
+        doctor.setName("Dr. John Smith");
+        doctor.setSpecialty("Cardiology");
+        doctor.setContact("john.smith@example.com");
+        doctor.setUser(doctorUser);
+
+        User patient = new User();
+        patient.setId(3L);
+        patient.setUsername("patient1");
+        patient.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5m4Z5m4Z5m4Z5m4Z5m4Z5m4");
+        patient.setRoles(Set.of("ROLE_PATIENT"));
+
+        appointment = new Appointment();
+        appointment.setId(42L);
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setAppointmentTime(LocalDateTime.of(2030, 1, 7, 9, 0));
+        appointment.setStatus("PENDING");
+    }
+
+    @Benchmark
+    public byte[] serializeAppointment() throws Exception {
+        return objectMapper.writeValueAsBytes(appointment);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.healthcare_appointment_api.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/** The in-memory conflict check bookAppointment runs, against 1,000 doctors with 1,000 bookings each. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SlotConflictBenchmark {
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 7, 9, 0);
+    private static final int DOCTORS = 1_000;
+    private static final int BOOKINGS_PER_DOCTOR = 1_000;
+
+    private SlotOccupancyIndex index;
+    private LocalDateTime bookedTime;
+    private LocalDateTime freeTime;
+
+    @Setup
+    public void setUp() {
+        index = new SlotOccupancyIndex();
+        for (long doctorId = 1; doctorId <= DOCTORS; doctorId++) {
+            for (int s = 0; s < BOOKINGS_PER_DOCTOR; s++) {
+                index.tryReserve(doctorId, FIRST_SLOT.plusMinutes(60L * s));
+            }
+        }
+        bookedTime = FIRST_SLOT.plusMinutes(60L * (BOOKINGS_PER_DOCTOR / 2));
+        freeTime = bookedTime.plusMinutes(30);
+    }
+
+    @Benchmark
+    public boolean conflictingBooking() {
+        return index.tryReserve(500L, bookedTime);
+    }
+
+    @Benchmark
+    public boolean freeSlotReserveAndRelease() {
+        boolean reserved = index.tryReserve(500L, freeTime);
+        index.release(500L, freeTime);
+        return reserved;
+    }
+
+    @Benchmark
+    public boolean isBooked() {
+        return index.isBooked(500L, bookedTime);
+    }
+}
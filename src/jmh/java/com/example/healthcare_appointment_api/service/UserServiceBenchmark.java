@@ -0,0 +1,39 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserServiceBenchmark {
+    private User user;
+    private Set<String> requestedRoles;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setUsername("doctor1");
+        user.setRoles(Set.of("ROLE_DOCTOR"));
+        requestedRoles = Set.of("doctor", "ROLE_admin");
+    }
+
+    @Benchmark
+    public String extractRole() {
+        return UserService.extractRole(user);
+    }
+
+    @Benchmark
+    public Set<String> normalizeRoles() {
+        return UserService.normalizeRoles(requestedRoles);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.healthcare_appointment_api.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for what nearly every request looks up and almost nothing changes:
+ * doctors, users with their roles, the username natural id and the doctor id behind a user id.
+ * Each region is a size-bounded Caffeine cache. Writes made through this instance update the
+ * touched entries on commit (READ_WRITE); entries also expire after a TTL so changes made through
+ * another instance are picked up. Hit, miss and eviction counts are published per region.
+ */
+@Configuration
+public class EntityCacheConfig {
+    // Must match the regions named on the entities and in DoctorRepository.
+    public static final String DOCTOR_REGION = "doctor";
+    public static final String USER_REGION = "user";
+    public static final String USER_ROLES_REGION = "user-roles";
+    public static final String USER_NATURAL_ID_REGION = "user-natural-id";
+    public static final String DOCTOR_BY_USER_REGION = "doctor-by-user";
+    // Hibernate's own regions: query results, and the per-table timestamps that invalidate them.
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    static final List<String> BOUNDED_REGIONS = List.of(DOCTOR_REGION, USER_REGION, USER_ROLES_REGION,
+            USER_NATURAL_ID_REGION, DOCTOR_BY_USER_REGION, QUERY_RESULTS_REGION);
+
+    // A URI of its own, so each application context gets a separate manager rather than the shared default.
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${entity-cache.max-entries:10000}") long maxEntries,
+                                           @Value("${entity-cache.ttl-seconds:300}") long ttlSeconds) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:entity-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : BOUNDED_REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = configuration();
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            cacheManager.createCache(region, configuration);
+        }
+        // One entry per table; evicting one would make cached query results look current.
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, configuration());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheProperties(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            // An unlisted region would otherwise be created unbounded.
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Feeds the hibernate.* cache metrics; the per-session summary it would log is noise.
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    // cache.gets, cache.puts, cache.evictions and cache.removals, tagged with the region name.
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> {
+            for (String region : BOUNDED_REGIONS) {
+                JCacheMetrics.monitor(registry, entityCacheManager.getCache(region));
+            }
+        };
+    }
+
+    // Hibernate caches immutable disassembled state, so copying entries on every get would be waste.
+    private static CaffeineConfiguration<Object, Object> configuration() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.healthcare_appointment_api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Active when spring.datasource.replica.url is set. The primary keeps the usual spring.datasource.*
+ * settings; the replica takes spring.datasource.replica.* and its own hikari pool settings.
+ * Transactions marked readOnly read from the replica; everything else goes to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // Bound here rather than exposed as a bean, which would leave two DataSourceProperties candidates.
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(Environment environment) throws Exception {
+        DataSourceProperties properties = Binder.get(environment)
+                .bind("spring.datasource.replica", DataSourceProperties.class).get();
+        properties.afterPropertiesSet();
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                             @Qualifier("replicaDataSource") DataSource replica,
+                                                             @Value("${datasource.replica.read-your-writes-ms:5000}") long readYourWritesMillis,
+                                                             MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(primary, replica, readYourWritesMillis, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource router) {
+        return new LazyConnectionDataSourceProxy(router);
+    }
+
+    @Bean(initMethod = "init")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               ReplicaRoutingDataSource router,
+                                               @Value("${datasource.replica.max-lag-ms:5000}") long maxLagMillis,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primary, replica, router, maxLagMillis, meterRegistry);
+    }
+}
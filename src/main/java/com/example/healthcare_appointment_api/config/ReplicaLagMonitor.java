@@ -0,0 +1,79 @@
+package com.example.healthcare_appointment_api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Measures replica lag with a heartbeat row: each tick stamps the time on the primary and reads
+ * back the newest stamp the replica has applied. Lag is therefore accurate to one heartbeat
+ * interval. While it exceeds maxLagMillis, or the replica cannot be read, the router sends reads
+ * to the primary.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger logger = Logger.getLogger(ReplicaLagMonitor.class.getName());
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaRoutingDataSource router;
+    private final long maxLagMillis;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, ReplicaRoutingDataSource router,
+                             long maxLagMillis, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.router = router;
+        this.maxLagMillis = maxLagMillis;
+        // -1 until the replica has applied a heartbeat.
+        Gauge.builder("datasource.replica.lag", this, ReplicaLagMonitor::getLagMillis)
+                .baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("datasource.replica.lagging", router, r -> r.isReplicaLagging() ? 1 : 0).register(meterRegistry);
+    }
+
+    // The table reaches the replica through replication, like any other DDL.
+    public void init() {
+        primary.execute(CREATE_TABLE);
+        check();
+    }
+
+    @Scheduled(initialDelayString = "${datasource.replica.heartbeat-ms:1000}", fixedDelayString = "${datasource.replica.heartbeat-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", now);
+            }
+        } catch (DataAccessException e) {
+            logger.warning("Could not write replica heartbeat: " + e.getMessage());
+        }
+        long lag;
+        try {
+            List<Long> applied = replica.queryForList("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+            lag = applied.isEmpty() ? -1 : Math.max(0, now - applied.get(0));
+        } catch (DataAccessException e) {
+            lag = -1;
+        }
+        lagMillis = lag;
+        boolean lagging = lag < 0 || lag > maxLagMillis;
+        if (lagging != router.isReplicaLagging()) {
+            logger.warning(lagging
+                    ? "Replica is behind (" + (lag < 0 ? "no heartbeat" : lag + " ms") + "), reading from the primary"
+                    : "Replica caught up (" + lag + " ms), reading from the replica again");
+        }
+        router.setReplicaLagging(lagging);
+        router.pruneWriters();
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+}
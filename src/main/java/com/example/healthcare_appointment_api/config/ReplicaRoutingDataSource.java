@@ -0,0 +1,112 @@
+package com.example.healthcare_appointment_api.config;
+
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. Must sit behind
+ * a LazyConnectionDataSourceProxy so the target is picked at the first statement, once the
+ * transaction's read-only flag is known. Reads fall back to the primary for a caller who committed
+ * a write within the read-your-writes window, and for everyone while the replica is lagging.
+ * The window is tracked per instance, which suits the sticky per-user traffic the API sees.
+ * Writes made before authentication (registration) are recorded explicitly, and the auth-path
+ * user lookups run read-write so they never depend on the replica having caught up.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final long readYourWritesMillis;
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final Counter readWrites;
+    private final Counter replicaReads;
+    private final Counter readYourWritesReads;
+    private final Counter laggingReads;
+    private volatile boolean replicaLagging;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long readYourWritesMillis,
+                                    MeterRegistry meterRegistry) {
+        this.readYourWritesMillis = readYourWritesMillis;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.readWrites = routed(meterRegistry, PRIMARY, "read_write");
+        this.replicaReads = routed(meterRegistry, REPLICA, "read");
+        this.readYourWritesReads = routed(meterRegistry, PRIMARY, "read_your_writes");
+        this.laggingReads = routed(meterRegistry, PRIMARY, "replica_lagging");
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing").tag("target", target).tag("reason", reason).register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readWrites.increment();
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recordWrite(userId);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (userId != null && wroteRecently(userId)) {
+            readYourWritesReads.increment();
+            return PRIMARY;
+        }
+        if (replicaLagging) {
+            laggingReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return REPLICA;
+    }
+
+    // For writes made before the user is authenticated, such as registration.
+    public void recordWrite(Long userId) {
+        lastWriteByUser.put(userId, System.currentTimeMillis());
+    }
+
+    public void setReplicaLagging(boolean replicaLagging) {
+        this.replicaLagging = replicaLagging;
+    }
+
+    public boolean isReplicaLagging() {
+        return replicaLagging;
+    }
+
+    // Drops users whose window has closed, so the map only holds recent writers.
+    public void pruneWriters() {
+        long cutoff = System.currentTimeMillis() - readYourWritesMillis;
+        lastWriteByUser.values().removeIf(writtenAt -> writtenAt < cutoff);
+    }
+
+    int getTrackedWriters() {
+        return lastWriteByUser.size();
+    }
+
+    private boolean wroteRecently(Long userId) {
+        Long writtenAt = lastWriteByUser.get(userId);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt < readYourWritesMillis;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal
+                ? principal.getUserId() : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.healthcare_appointment_api.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logs {@code event=<name> key=value ...} lines at most once per interval for each event name and
+ * reports how many were dropped in between. Meant for events a client can trigger on every
+ * request, such as rejected tokens, where counting belongs in metrics and the log only needs a
+ * representative sample. The details supplier is only called for lines that are written.
+ */
+public class SampledLogger {
+    private final Logger logger;
+    private final long intervalNanos;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public SampledLogger(Logger logger, long interval, TimeUnit unit) {
+        this.logger = logger;
+        this.intervalNanos = unit.toNanos(interval);
+    }
+
+    public void log(Level level, String event, Supplier<String> details) {
+        if (!logger.isLoggable(level)) {
+            return;
+        }
+        Window window = windows.computeIfAbsent(event, e -> new Window());
+        long now = System.nanoTime();
+        long next = window.nextAllowed.get();
+        if (now - next < 0 || !window.nextAllowed.compareAndSet(next, now + intervalNanos)) {
+            window.suppressed.incrementAndGet();
+            return;
+        }
+        long suppressed = window.suppressed.getAndSet(0);
+        String line = "event=" + event + " " + details.get();
+        logger.log(level, suppressed > 0 ? line + " suppressed=" + suppressed : line);
+    }
+
+    private static final class Window {
+        private final AtomicLong nextAllowed = new AtomicLong(System.nanoTime());
+        private final AtomicLong suppressed = new AtomicLong();
+    }
+}
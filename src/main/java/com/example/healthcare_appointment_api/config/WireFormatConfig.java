@@ -0,0 +1,57 @@
+package com.example.healthcare_appointment_api.config;
+
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.dto.AvailableSlot;
+import com.example.healthcare_appointment_api.dto.DoctorView;
+import com.example.healthcare_appointment_api.dto.UserView;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.Map;
+
+/**
+ * Response encoding. The view DTOs carry the {@value #FIELDS_FILTER} filter, which serializes every
+ * property unless a request narrows it with ?fields=. Besides JSON, clients may ask for
+ * application/cbor or application/x-jackson-smile; both converters are built from the same
+ * customized builder, so dates, filters and modules match the JSON output.
+ */
+@Configuration
+public class WireFormatConfig {
+    public static final String FIELDS_FILTER = "fields";
+
+    // Applied as a mix-in so a plain ObjectMapper can still serialize the views without a filter provider.
+    @JsonFilter(FIELDS_FILTER)
+    interface FieldsFilterMixIn {
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsFilterCustomizer() {
+        return builder -> builder
+                .mixIns(Map.of(
+                        AppointmentView.class, FieldsFilterMixIn.class,
+                        DoctorView.class, FieldsFilterMixIn.class,
+                        UserView.class, FieldsFilterMixIn.class,
+                        AvailableSlot.class, FieldsFilterMixIn.class))
+                .filters(new SimpleFilterProvider().addFilter(FIELDS_FILTER, SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    // The builder is prototype-scoped, so each converter gets its own mapper.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.healthcare_appointment_api.controller;
+
+import com.example.healthcare_appointment_api.dto.AnalyticsReport;
+import com.example.healthcare_appointment_api.service.AppointmentAnalytics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+// Served from in-memory counts; dashboard refreshes never query the appointment tables.
+@RestController
+@RequestMapping("/api/admin/analytics")
+@PreAuthorize("hasRole('ADMIN')")
+public class AnalyticsController {
+    private static final int DEFAULT_DAYS = 30;
+
+    @Autowired
+    private AppointmentAnalytics appointmentAnalytics;
+
+    @GetMapping
+    public ResponseEntity<AnalyticsReport> getReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate until = to != null ? to : LocalDate.now();
+        LocalDate since = from != null ? from : until.minusDays(DEFAULT_DAYS - 1);
+        return ResponseEntity.ok(appointmentAnalytics.report(since, until));
+    }
+}
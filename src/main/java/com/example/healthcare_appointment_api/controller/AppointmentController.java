@@ -1,29 +1,66 @@
 package com.example.healthcare_appointment_api.controller;
 
+import com.example.healthcare_appointment_api.dto.AppointmentPage;
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.dto.StatusChangeRequest;
+import com.example.healthcare_appointment_api.dto.StatusChangeResult;
 import com.example.healthcare_appointment_api.model.Appointment;
 import com.example.healthcare_appointment_api.service.AppointmentService;
+import com.example.healthcare_appointment_api.service.InvalidCursorException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/appointments")
 public class AppointmentController {
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private AppointmentService appointmentService;
 
     @PostMapping
     @PreAuthorize("hasRole('PATIENT')")
-    public ResponseEntity<Appointment> bookAppointment(@RequestBody Appointment appointment) {
+    public ResponseEntity<AppointmentView> bookAppointment(@RequestBody Appointment appointment) {
         return ResponseEntity.ok(appointmentService.bookAppointment(appointment));
     }
 
     @GetMapping
     @PreAuthorize("hasRole('PATIENT') or hasRole('DOCTOR')")
-    public ResponseEntity<List<Appointment>> getAppointments() {
-        return ResponseEntity.ok(appointmentService.getAppointments());
+    public ResponseEntity<AppointmentPage> getAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(appointmentService.getAppointments(from, to, status, cursor, pageSize));
+    }
+
+    // Confirms, cancels or completes a batch of appointments; AppointmentStatus lists the allowed moves.
+    @PatchMapping("/status")
+    @PreAuthorize("hasRole('PATIENT') or hasRole('DOCTOR')")
+    public ResponseEntity<StatusChangeResult> changeStatus(@RequestBody StatusChangeRequest request) {
+        return ResponseEntity.ok(appointmentService.changeStatus(request.getIds(), request.getStatus()));
+    }
+
+    // Server-sent events with each booking or status change, instead of polling GET /api/appointments.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('PATIENT') or hasRole('DOCTOR')")
+    public SseEmitter streamAppointments(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return appointmentService.subscribeToChanges(lastEventId);
+    }
+
+    // A cursor the client altered or carried over from elsewhere is a bad request, not a server error.
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> invalidCursor(InvalidCursorException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -2,9 +2,17 @@ package com.example.healthcare_appointment_api.controller;
 
 import com.example.healthcare_appointment_api.dto.AuthRequest;
 import com.example.healthcare_appointment_api.dto.AuthResponse;
+import com.example.healthcare_appointment_api.dto.RefreshRequest;
 import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.security.InvalidRefreshTokenException;
+import com.example.healthcare_appointment_api.security.PasswordHashingBusyException;
+import com.example.healthcare_appointment_api.service.InvalidRegistrationException;
 import com.example.healthcare_appointment_api.service.UserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -26,4 +34,35 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest authRequest) {
         return ResponseEntity.ok(userService.login(authRequest));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshRequest refreshRequest) {
+        return ResponseEntity.ok(userService.refresh(refreshRequest.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> logout(Authentication authentication) {
+        userService.revokeTokens(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Answered here rather than via the error page so the client gets the 503 immediately.
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<String> hashingBusy(PasswordHashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    // An unknown, expired, reused or revoked refresh token means the client has to log in again.
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<String> invalidRefreshToken(InvalidRefreshTokenException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidRegistrationException.class)
+    public ResponseEntity<String> invalidRegistration(InvalidRegistrationException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
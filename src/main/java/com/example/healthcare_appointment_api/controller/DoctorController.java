@@ -1,45 +1,160 @@
 package com.example.healthcare_appointment_api.controller;
 
+import com.example.healthcare_appointment_api.dto.AvailableSlot;
+import com.example.healthcare_appointment_api.dto.DoctorView;
 import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.service.DoctorDirectory;
 import com.example.healthcare_appointment_api.service.DoctorService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/doctors")
 public class DoctorController {
+    private static final int MAX_AVAILABILITY_LIMIT = 100;
+    private static final int MAX_SEARCH_LIMIT = 50;
+    private static final List<MediaType> BINARY_FORMATS =
+            List.of(MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
 
     @Autowired
     private DoctorService doctorService;
 
+    @Autowired
+    private DoctorDirectory doctorDirectory;
+
     @PostMapping
     @PreAuthorize("hasRole('DOCTOR')")
-    public ResponseEntity<Doctor> createDoctorProfile(@RequestBody Doctor doctor) {
+    public ResponseEntity<DoctorView> createDoctorProfile(@RequestBody Doctor doctor) {
         return ResponseEntity.ok(doctorService.createDoctorProfile(doctor));
     }
 
     @GetMapping
     @PreAuthorize("hasRole('PATIENT') or hasRole('DOCTOR')")
-    public ResponseEntity<List<Doctor>> getAllDoctors(@RequestParam(required = false) String specialty) {
+    public ResponseEntity<?> getAllDoctors(@RequestParam(required = false) String specialty,
+                                           @RequestParam(required = false) String fields,
+                                           @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        DoctorDirectory.Snapshot snapshot = doctorDirectory.current();
+        MediaType binaryFormat = binaryFormat(accept);
+        if (fields != null || binaryFormat != null) {
+            List<DoctorView> doctors = specialty != null && !specialty.isEmpty()
+                    ? snapshot.getDoctorsBySpecialty(specialty) : snapshot.getAllDoctors();
+            return viewsOrNotModified(snapshot.getEtag(), binaryFormat, ifNoneMatch, doctors);
+        }
         if(specialty != null && !specialty.isEmpty()) {
-            return ResponseEntity.ok(doctorService.getDoctorsBySpecialty(specialty));
+            return jsonOrNotModified(snapshot.getEtag(), ifNoneMatch, snapshot.getSpecialtyJson(specialty));
         }
-        return ResponseEntity.ok(doctorService.getAllDoctors());
+        return jsonOrNotModified(snapshot.getEtag(), ifNoneMatch, snapshot.getAllJson());
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('PATIENT') or hasRole('DOCTOR')")
+    public ResponseEntity<List<DoctorView>> searchDoctors(@RequestParam("q") String query,
+                                                         @RequestParam(defaultValue = "10") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        return ResponseEntity.ok(doctorService.searchDoctors(query, boundedLimit));
+    }
+
+    @GetMapping("/availability")
+    @PreAuthorize("hasRole('PATIENT') or hasRole('DOCTOR')")
+    public ResponseEntity<List<AvailableSlot>> getAvailability(
+            @RequestParam String specialty,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "10") int limit) {
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        LocalDateTime end = to != null ? to : start.plusDays(7);
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_AVAILABILITY_LIMIT));
+        return ResponseEntity.ok(doctorService.findAvailableSlots(specialty, start, end, boundedLimit));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('PATIENT') or hasRole('DOCTOR')")
-    public ResponseEntity<Doctor> getDoctorById(@PathVariable Long id) {
-        return ResponseEntity.ok(doctorService.getDoctorById(id));
+    public ResponseEntity<?> getDoctorById(@PathVariable Long id,
+                                           @RequestParam(required = false) String fields,
+                                           @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        DoctorDirectory.Entry entry = doctorDirectory.current().getDoctor(id);
+        if (entry == null) {
+            throw new RuntimeException("Doctor not found");
+        }
+        MediaType binaryFormat = binaryFormat(accept);
+        if (fields != null || binaryFormat != null) {
+            return viewsOrNotModified(entry.getEtag(), binaryFormat, ifNoneMatch, entry.getView());
+        }
+        return jsonOrNotModified(entry.getEtag(), ifNoneMatch, entry.getJson());
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('DOCTOR')")
-    public ResponseEntity<Doctor> updateDoctorProfile(@PathVariable Long id, @RequestBody Doctor doctor) {
+    public ResponseEntity<DoctorView> updateDoctorProfile(@PathVariable Long id, @RequestBody Doctor doctor) {
         return ResponseEntity.ok(doctorService.updateDoctorProfile(id, doctor));
     }
+
+    private static ResponseEntity<byte[]> jsonOrNotModified(String etag, String ifNoneMatch, byte[] body) {
+        if (notModified(etag, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // Encoded per request by the message converters: a ?fields= subset, or CBOR/Smile with its own ETag.
+    private static ResponseEntity<Object> viewsOrNotModified(String etag, MediaType binaryFormat, String ifNoneMatch,
+                                                             Object body) {
+        String variantEtag = binaryFormat == null ? etag
+                : etag.substring(0, etag.length() - 1) + "-" + binaryFormat.getSubtype() + "\"";
+        if (notModified(variantEtag, ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(variantEtag).cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(variantEtag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    private static boolean notModified(String etag, String ifNoneMatch) {
+        return ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"));
+    }
+
+    // The pre-encoded bytes are JSON, so only a client whose preferred type is CBOR or Smile needs re-encoding.
+    private static MediaType binaryFormat(String accept) {
+        if (accept == null) {
+            return null;
+        }
+        MediaType preferred = null;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (preferred == null || type.getQualityValue() > preferred.getQualityValue()) {
+                    preferred = type;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        for (MediaType format : BINARY_FORMATS) {
+            if (preferred != null && format.equalsTypeAndSubtype(preferred)) {
+                return format;
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,45 @@
+package com.example.healthcare_appointment_api.controller;
+
+import com.example.healthcare_appointment_api.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/admin/export")
+@PreAuthorize("hasRole('ADMIN')")
+public class ExportController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/users")
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        prepare(response, "users");
+        exportService.exportUsers(response.getOutputStream());
+    }
+
+    @GetMapping("/doctors")
+    public void exportDoctors(HttpServletResponse response) throws IOException {
+        prepare(response, "doctors");
+        exportService.exportDoctors(response.getOutputStream());
+    }
+
+    @GetMapping("/appointments")
+    public void exportAppointments(HttpServletResponse response) throws IOException {
+        prepare(response, "appointments");
+        exportService.exportAppointments(response.getOutputStream());
+    }
+
+    private static void prepare(HttpServletResponse response, String name) {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + name + ".ndjson\"");
+    }
+}
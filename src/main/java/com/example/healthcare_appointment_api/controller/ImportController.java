@@ -0,0 +1,41 @@
+package com.example.healthcare_appointment_api.controller;
+
+import com.example.healthcare_appointment_api.dto.ImportReport;
+import com.example.healthcare_appointment_api.service.ImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+// Bodies are read straight from the request stream, never buffered whole.
+@RestController
+@RequestMapping("/api/admin/import")
+@PreAuthorize("hasRole('ADMIN')")
+public class ImportController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    @Autowired
+    private ImportService importService;
+
+    @PostMapping(value = "/doctors", consumes = {NDJSON, CSV})
+    public ImportReport importDoctors(HttpServletRequest request) throws IOException {
+        return importService.importDoctors(request.getInputStream(), format(request));
+    }
+
+    @PostMapping(value = "/appointments", consumes = {NDJSON, CSV})
+    public ImportReport importAppointments(HttpServletRequest request) throws IOException {
+        return importService.importAppointments(request.getInputStream(), format(request));
+    }
+
+    private static ImportService.Format format(HttpServletRequest request) {
+        return MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? ImportService.Format.CSV
+                : ImportService.Format.NDJSON;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.healthcare_appointment_api.controller;
+
+import com.example.healthcare_appointment_api.config.WireFormatConfig;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Applies ?fields=id,status to every view DTO in a response, whatever the format. Wrappers such as
+ * AppointmentPage keep all their properties; names that match nothing are ignored.
+ */
+@RestControllerAdvice
+public class SparseFieldsetAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    static final String FIELDS_PARAM = "fields";
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        Set<String> fields = parseFields(servletRequest.getServletRequest().getParameter(FIELDS_PARAM));
+        if (fields != null) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .addFilter(WireFormatConfig.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        }
+    }
+
+    // Null when the parameter is absent or blank, so the response is left whole.
+    static Set<String> parseFields(String parameter) {
+        if (parameter == null) {
+            return null;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : parameter.split(",")) {
+            String trimmed = field.trim();
+            if (!trimmed.isEmpty()) {
+                fields.add(trimmed);
+            }
+        }
+        return fields.isEmpty() ? null : fields;
+    }
+}
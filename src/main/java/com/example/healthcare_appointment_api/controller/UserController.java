@@ -1,12 +1,11 @@
 package com.example.healthcare_appointment_api.controller;
 
-import com.example.healthcare_appointment_api.model.User;
-import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.dto.UserView;
+import com.example.healthcare_appointment_api.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
@@ -15,10 +14,17 @@ import java.util.List;
 public class UserController {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userRepository.findAll());
+    public ResponseEntity<List<UserView>> getAllUsers() {
+        return ResponseEntity.ok(userService.getAllUsers());
+    }
+
+    @PutMapping("/{id}/disabled")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> setDisabled(@PathVariable Long id, @RequestParam boolean disabled) {
+        userService.setDisabled(id, disabled);
+        return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.example.healthcare_appointment_api.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public class AnalyticsReport {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final Instant rebuiltAt;
+    private final Map<String, Long> totals;
+    private final List<Long> byHour;
+    private final List<DayCounts> days;
+    private final List<DoctorUtilization> doctors;
+    private final List<SpecialtyUtilization> specialties;
+
+    public AnalyticsReport(LocalDate from, LocalDate to, Instant rebuiltAt, Map<String, Long> totals, List<Long> byHour,
+                           List<DayCounts> days, List<DoctorUtilization> doctors, List<SpecialtyUtilization> specialties) {
+        this.from = from;
+        this.to = to;
+        this.rebuiltAt = rebuiltAt;
+        this.totals = totals;
+        this.byHour = byHour;
+        this.days = days;
+        this.doctors = doctors;
+        this.specialties = specialties;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    // When the counts were last reconciled with the tables.
+    public Instant getRebuiltAt() {
+        return rebuiltAt;
+    }
+
+    // Appointments per status over the range.
+    public Map<String, Long> getTotals() {
+        return totals;
+    }
+
+    // Appointments that are not cancelled, by hour of day (0-23) over the range.
+    public List<Long> getByHour() {
+        return byHour;
+    }
+
+    public List<DayCounts> getDays() {
+        return days;
+    }
+
+    public List<DoctorUtilization> getDoctors() {
+        return doctors;
+    }
+
+    public List<SpecialtyUtilization> getSpecialties() {
+        return specialties;
+    }
+
+    public static class DayCounts {
+        private final LocalDate date;
+        private final Map<String, Long> counts;
+
+        public DayCounts(LocalDate date, Map<String, Long> counts) {
+            this.date = date;
+            this.counts = counts;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public Map<String, Long> getCounts() {
+            return counts;
+        }
+    }
+
+    public static class DoctorUtilization {
+        private final Long doctorId;
+        private final String name;
+        private final String specialty;
+        private final Map<String, Long> counts;
+        private final double utilization;
+
+        public DoctorUtilization(Long doctorId, String name, String specialty, Map<String, Long> counts, double utilization) {
+            this.doctorId = doctorId;
+            this.name = name;
+            this.specialty = specialty;
+            this.counts = counts;
+            this.utilization = utilization;
+        }
+
+        public Long getDoctorId() {
+            return doctorId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSpecialty() {
+            return specialty;
+        }
+
+        public Map<String, Long> getCounts() {
+            return counts;
+        }
+
+        // Appointments that are not cancelled, over the bookable slots in the range.
+        public double getUtilization() {
+            return utilization;
+        }
+    }
+
+    public static class SpecialtyUtilization {
+        private final String specialty;
+        private final int doctors;
+        private final Map<String, Long> counts;
+        private final double utilization;
+
+        public SpecialtyUtilization(String specialty, int doctors, Map<String, Long> counts, double utilization) {
+            this.specialty = specialty;
+            this.doctors = doctors;
+            this.counts = counts;
+            this.utilization = utilization;
+        }
+
+        public String getSpecialty() {
+            return specialty;
+        }
+
+        public int getDoctors() {
+            return doctors;
+        }
+
+        public Map<String, Long> getCounts() {
+            return counts;
+        }
+
+        public double getUtilization() {
+            return utilization;
+        }
+    }
+}
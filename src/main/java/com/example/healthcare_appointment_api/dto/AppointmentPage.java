@@ -0,0 +1,21 @@
+package com.example.healthcare_appointment_api.dto;
+
+import java.util.List;
+
+public class AppointmentPage {
+    private final List<AppointmentView> items;
+    private final String nextCursor;
+
+    public AppointmentPage(List<AppointmentView> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AppointmentView> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
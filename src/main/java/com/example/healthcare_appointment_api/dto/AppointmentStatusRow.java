@@ -0,0 +1,33 @@
+package com.example.healthcare_appointment_api.dto;
+
+import java.time.LocalDateTime;
+
+public class AppointmentStatusRow {
+    private final Long id;
+    private final Long doctorId;
+    private final LocalDateTime appointmentTime;
+    private final String status;
+
+    public AppointmentStatusRow(Long id, Long doctorId, LocalDateTime appointmentTime, String status) {
+        this.id = id;
+        this.doctorId = doctorId;
+        this.appointmentTime = appointmentTime;
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
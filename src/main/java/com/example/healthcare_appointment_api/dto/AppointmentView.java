@@ -0,0 +1,59 @@
+package com.example.healthcare_appointment_api.dto;
+
+import java.time.LocalDateTime;
+
+public class AppointmentView {
+    private final Long id;
+    private final LocalDateTime appointmentTime;
+    private final String status;
+    private final Long doctorId;
+    private final String doctorName;
+    private final String specialty;
+    private final Long patientId;
+    private final String patientUsername;
+
+    public AppointmentView(Long id, LocalDateTime appointmentTime, String status,
+                           Long doctorId, String doctorName, String specialty,
+                           Long patientId, String patientUsername) {
+        this.id = id;
+        this.appointmentTime = appointmentTime;
+        this.status = status;
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.specialty = specialty;
+        this.patientId = patientId;
+        this.patientUsername = patientUsername;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public String getDoctorName() {
+        return doctorName;
+    }
+
+    public String getSpecialty() {
+        return specialty;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public String getPatientUsername() {
+        return patientUsername;
+    }
+}
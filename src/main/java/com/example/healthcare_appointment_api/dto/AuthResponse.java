@@ -2,11 +2,19 @@ package com.example.healthcare_appointment_api.dto;
 
 public class AuthResponse {
     String token;
+    String refreshToken;
+    Long expiresIn;
 
     public AuthResponse(String token) {
         this.token = token;
     }
 
+    public AuthResponse(String token, String refreshToken, long expiresIn) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+
     public String getToken() {
         return token;
     }
@@ -14,4 +22,20 @@ public class AuthResponse {
     public void setToken(String token) {
         this.token = token;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public Long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(Long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
 }
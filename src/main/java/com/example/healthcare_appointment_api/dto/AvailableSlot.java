@@ -0,0 +1,33 @@
+package com.example.healthcare_appointment_api.dto;
+
+import java.time.LocalDateTime;
+
+public class AvailableSlot {
+    private final Long doctorId;
+    private final String doctorName;
+    private final String specialty;
+    private final LocalDateTime startTime;
+
+    public AvailableSlot(Long doctorId, String doctorName, String specialty, LocalDateTime startTime) {
+        this.doctorId = doctorId;
+        this.doctorName = doctorName;
+        this.specialty = specialty;
+        this.startTime = startTime;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public String getDoctorName() {
+        return doctorName;
+    }
+
+    public String getSpecialty() {
+        return specialty;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+}
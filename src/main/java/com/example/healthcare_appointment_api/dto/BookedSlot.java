@@ -0,0 +1,27 @@
+package com.example.healthcare_appointment_api.dto;
+
+import java.time.LocalDateTime;
+
+public class BookedSlot {
+    private final Long id;
+    private final Long doctorId;
+    private final LocalDateTime appointmentTime;
+
+    public BookedSlot(Long id, Long doctorId, LocalDateTime appointmentTime) {
+        this.id = id;
+        this.doctorId = doctorId;
+        this.appointmentTime = appointmentTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public LocalDateTime getAppointmentTime() {
+        return appointmentTime;
+    }
+}
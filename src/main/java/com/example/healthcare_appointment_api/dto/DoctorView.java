@@ -0,0 +1,56 @@
+package com.example.healthcare_appointment_api.dto;
+
+import java.util.Objects;
+
+public class DoctorView {
+    private final Long id;
+    private final String name;
+    private final String specialty;
+    private final String contact;
+    private final Long userId;
+
+    public DoctorView(Long id, String name, String specialty, String contact, Long userId) {
+        this.id = id;
+        this.name = name;
+        this.specialty = specialty;
+        this.contact = contact;
+        this.userId = userId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSpecialty() {
+        return specialty;
+    }
+
+    public String getContact() {
+        return contact;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DoctorView)) return false;
+        DoctorView that = (DoctorView) o;
+        return Objects.equals(id, that.id)
+                && Objects.equals(name, that.name)
+                && Objects.equals(specialty, that.specialty)
+                && Objects.equals(contact, that.contact)
+                && Objects.equals(userId, that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, specialty, contact, userId);
+    }
+}
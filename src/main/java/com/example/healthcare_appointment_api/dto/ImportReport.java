@@ -0,0 +1,73 @@
+package com.example.healthcare_appointment_api.dto;
+
+import java.util.List;
+
+public class ImportReport {
+    private final String entity;
+    private final long rows;
+    private final long imported;
+    private final long rejectedCount;
+    private final List<Rejection> rejected;
+    private final boolean complete;
+    private final long elapsedMillis;
+
+    public ImportReport(String entity, long rows, long imported, long rejectedCount, List<Rejection> rejected,
+                        boolean complete, long elapsedMillis) {
+        this.entity = entity;
+        this.rows = rows;
+        this.imported = imported;
+        this.rejectedCount = rejectedCount;
+        this.rejected = rejected;
+        this.complete = complete;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    // All rejected rows, including those beyond the listed ones.
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public List<Rejection> getRejected() {
+        return rejected;
+    }
+
+    // False when the body could not be read to the end or a batch failed to save.
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public static class Rejection {
+        private final long row;
+        private final String reason;
+
+        public Rejection(long row, String reason) {
+            this.row = row;
+            this.reason = reason;
+        }
+
+        // 1-based position of the data row in the body, not counting a CSV header.
+        public long getRow() {
+            return row;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
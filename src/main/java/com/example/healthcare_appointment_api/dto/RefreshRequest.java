@@ -0,0 +1,13 @@
+package com.example.healthcare_appointment_api.dto;
+
+public class RefreshRequest {
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.healthcare_appointment_api.dto;
+
+public class Reminder {
+    private final AppointmentView appointment;
+    private final int leadMinutes;
+
+    public Reminder(AppointmentView appointment, int leadMinutes) {
+        this.appointment = appointment;
+        this.leadMinutes = leadMinutes;
+    }
+
+    public AppointmentView getAppointment() {
+        return appointment;
+    }
+
+    public int getLeadMinutes() {
+        return leadMinutes;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.healthcare_appointment_api.dto;
+
+import java.time.Instant;
+
+public class RevokedUser {
+    private final String username;
+    private final Instant tokensRevokedAt;
+    private final Boolean disabled;
+
+    public RevokedUser(String username, Instant tokensRevokedAt, Boolean disabled) {
+        this.username = username;
+        this.tokensRevokedAt = tokensRevokedAt;
+        this.disabled = disabled;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Instant getTokensRevokedAt() {
+        return tokensRevokedAt;
+    }
+
+    public boolean isDisabled() {
+        return Boolean.TRUE.equals(disabled);
+    }
+}
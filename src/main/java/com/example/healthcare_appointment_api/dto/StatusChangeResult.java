@@ -0,0 +1,45 @@
+package com.example.healthcare_appointment_api.dto;
+
+import java.util.List;
+
+public class StatusChangeResult {
+    private final String status;
+    private final List<Long> applied;
+    private final List<Rejection> rejected;
+
+    public StatusChangeResult(String status, List<Long> applied, List<Rejection> rejected) {
+        this.status = status;
+        this.applied = applied;
+        this.rejected = rejected;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public List<Long> getApplied() {
+        return applied;
+    }
+
+    public List<Rejection> getRejected() {
+        return rejected;
+    }
+
+    public static class Rejection {
+        private final Long id;
+        private final String reason;
+
+        public Rejection(Long id, String reason) {
+            this.id = id;
+            this.reason = reason;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
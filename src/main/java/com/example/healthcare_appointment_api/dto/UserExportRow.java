@@ -0,0 +1,25 @@
+package com.example.healthcare_appointment_api.dto;
+
+public class UserExportRow {
+    private final Long id;
+    private final String username;
+    private final boolean disabled;
+
+    public UserExportRow(Long id, String username, Boolean disabled) {
+        this.id = id;
+        this.username = username;
+        this.disabled = Boolean.TRUE.equals(disabled);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public boolean isDisabled() {
+        return disabled;
+    }
+}
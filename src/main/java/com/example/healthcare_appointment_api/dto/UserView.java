@@ -0,0 +1,33 @@
+package com.example.healthcare_appointment_api.dto;
+
+import java.util.Set;
+
+public class UserView {
+    private final Long id;
+    private final String username;
+    private final Set<String> roles;
+    private final boolean disabled;
+
+    public UserView(Long id, String username, Set<String> roles, boolean disabled) {
+        this.id = id;
+        this.username = username;
+        this.roles = roles;
+        this.disabled = disabled;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    public boolean isDisabled() {
+        return disabled;
+    }
+}
@@ -4,6 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_appointment_doctor_time", columnList = "doctor_id, appointment_time"),
+        @Index(name = "idx_appointment_patient_time", columnList = "patient_id, appointment_time"),
+        @Index(name = "idx_appointment_time", columnList = "appointment_time")
+})
 public class Appointment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,38 @@
+package com.example.healthcare_appointment_api.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle of an appointment. Appointment.status stores the name; CANCELLED and COMPLETED are
+ * final.
+ */
+public enum AppointmentStatus {
+    PENDING,
+    CONFIRMED,
+    CANCELLED,
+    COMPLETED;
+
+    public Set<AppointmentStatus> next() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(CONFIRMED, CANCELLED);
+            case CONFIRMED -> EnumSet.of(COMPLETED, CANCELLED);
+            case CANCELLED, COMPLETED -> EnumSet.noneOf(AppointmentStatus.class);
+        };
+    }
+
+    public boolean canBecome(AppointmentStatus target) {
+        return next().contains(target);
+    }
+
+    public static AppointmentStatus parse(String status) {
+        if (status != null) {
+            for (AppointmentStatus value : values()) {
+                if (value.name().equalsIgnoreCase(status.trim())) {
+                    return value;
+                }
+            }
+        }
+        throw new RuntimeException("Unknown appointment status: " + status);
+    }
+}
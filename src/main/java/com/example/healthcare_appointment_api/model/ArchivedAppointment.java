@@ -0,0 +1,35 @@
+package com.example.healthcare_appointment_api.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Appointments past the archive horizon, moved out of the hot table by AppointmentArchiver.
+// Rows keep the id they had in the appointment table.
+@Entity
+@Table(name = "appointment_archive", indexes = {
+        @Index(name = "idx_appointment_archive_doctor_time", columnList = "doctor_id, appointment_time"),
+        @Index(name = "idx_appointment_archive_patient_time", columnList = "patient_id, appointment_time")
+})
+public class ArchivedAppointment {
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id")
+    private User patient;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id")
+    private Doctor doctor;
+
+    private LocalDateTime appointmentTime;
+    private String status;
+    private LocalDateTime archivedAt;
+
+    public Long getId() { return id; }
+    public User getPatient() { return patient; }
+    public Doctor getDoctor() { return doctor; }
+    public LocalDateTime getAppointmentTime() { return appointmentTime; }
+    public String getStatus() { return status; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
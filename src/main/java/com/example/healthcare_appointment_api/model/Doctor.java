@@ -1,9 +1,12 @@
 package com.example.healthcare_appointment_api.model;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctor")
 public class Doctor {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -14,7 +17,6 @@ public class Doctor {
 
     @OneToOne
     @JoinColumn(name = "user_id")
-    @JsonManagedReference
     private User user;
 
     public Long getId() { return id; }
@@ -1,18 +1,27 @@
 package com.example.healthcare_appointment_api.model;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+import java.time.Instant;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_tokens_revoked_at", columnList = "tokens_revoked_at"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @NotBlank
     @Column(unique = true)
     private String username;
@@ -20,11 +29,14 @@ public class User {
 
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     private Set<String> roles;
 
-    @OneToOne(mappedBy = "users")
-    @JsonBackReference
-    private Doctor doctor;
+    @JsonIgnore
+    private Boolean disabled;
+
+    @JsonIgnore
+    private Instant tokensRevokedAt;
 
     public Long getId() {
         return id;
@@ -58,11 +70,20 @@ public class User {
         this.roles = roles;
     }
 
-    public Doctor getDoctor() {
-        return doctor;
+    @JsonIgnore
+    public boolean isDisabled() {
+        return Boolean.TRUE.equals(disabled);
+    }
+
+    public void setDisabled(Boolean disabled) {
+        this.disabled = disabled;
+    }
+
+    public Instant getTokensRevokedAt() {
+        return tokensRevokedAt;
     }
 
-    public void setDoctor(Doctor doctor) {
-        this.doctor = doctor;
+    public void setTokensRevokedAt(Instant tokensRevokedAt) {
+        this.tokensRevokedAt = tokensRevokedAt;
     }
 }
\ No newline at end of file
@@ -1,16 +1,107 @@
 package com.example.healthcare_appointment_api.repository;
 
+import com.example.healthcare_appointment_api.dto.AppointmentStatusRow;
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.dto.BookedSlot;
 import com.example.healthcare_appointment_api.model.Appointment;
 import com.example.healthcare_appointment_api.model.Doctor;
 import com.example.healthcare_appointment_api.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
     boolean existsByDoctorAndAppointmentTime(Doctor doctor, LocalDateTime appointmentTime);
     List<Appointment> findByDoctor(Doctor doctor);
     List<Appointment> findByPatient(User patient);
-}
\ No newline at end of file
+
+    @Query("select new com.example.healthcare_appointment_api.dto.AppointmentView(" +
+            "a.id, a.appointmentTime, a.status, d.id, d.name, d.specialty, p.id, p.username) " +
+            "from Appointment a join a.doctor d join a.patient p " +
+            "where d.id = :doctorId and a.appointmentTime < :to " +
+            "and (a.appointmentTime > :afterTime or (a.appointmentTime = :afterTime and a.id > :afterId)) " +
+            "and (:status is null or a.status = :status) " +
+            "order by a.appointmentTime, a.id")
+    List<AppointmentView> findDoctorPage(@Param("doctorId") Long doctorId,
+                                         @Param("afterTime") LocalDateTime afterTime,
+                                         @Param("afterId") Long afterId,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("status") String status,
+                                         Pageable pageable);
+
+    @Query("select new com.example.healthcare_appointment_api.dto.AppointmentView(" +
+            "a.id, a.appointmentTime, a.status, d.id, d.name, d.specialty, p.id, p.username) " +
+            "from Appointment a join a.doctor d join a.patient p " +
+            "where p.id = :patientId and a.appointmentTime < :to " +
+            "and (a.appointmentTime > :afterTime or (a.appointmentTime = :afterTime and a.id > :afterId)) " +
+            "and (:status is null or a.status = :status) " +
+            "order by a.appointmentTime, a.id")
+    List<AppointmentView> findPatientPage(@Param("patientId") Long patientId,
+                                          @Param("afterTime") LocalDateTime afterTime,
+                                          @Param("afterId") Long afterId,
+                                          @Param("to") LocalDateTime to,
+                                          @Param("status") String status,
+                                          Pageable pageable);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new com.example.healthcare_appointment_api.dto.AppointmentView(" +
+            "a.id, a.appointmentTime, a.status, d.id, d.name, d.specialty, p.id, p.username) " +
+            "from Appointment a left join a.doctor d left join a.patient p order by a.id")
+    Stream<AppointmentView> streamForExport();
+
+    @Query("select new com.example.healthcare_appointment_api.dto.BookedSlot(a.id, a.doctor.id, a.appointmentTime) " +
+            "from Appointment a where a.id > :afterId and a.appointmentTime is not null " +
+            "and (a.status is null or a.status <> 'CANCELLED') order by a.id")
+    List<BookedSlot> findBookedSlotsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Oldest first, so each archive batch takes the next rows off the idx_appointment_time index.
+    @Query("select new com.example.healthcare_appointment_api.dto.BookedSlot(a.id, a.doctor.id, a.appointmentTime) " +
+            "from Appointment a where a.appointmentTime < :cutoff order by a.appointmentTime, a.id")
+    List<BookedSlot> findArchivableBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Reminder loading walks idx_appointment_time from the cursor, never the whole table.
+    @Query("select new com.example.healthcare_appointment_api.dto.BookedSlot(a.id, a.doctor.id, a.appointmentTime) " +
+            "from Appointment a where a.appointmentTime <= :to and (a.status is null or a.status <> 'CANCELLED') " +
+            "and (a.appointmentTime > :afterTime or (a.appointmentTime = :afterTime and a.id > :afterId)) " +
+            "order by a.appointmentTime, a.id")
+    List<BookedSlot> findUpcomingPage(@Param("afterTime") LocalDateTime afterTime,
+                                      @Param("afterId") Long afterId,
+                                      @Param("to") LocalDateTime to,
+                                      Pageable pageable);
+
+    @Query("select new com.example.healthcare_appointment_api.dto.AppointmentView(" +
+            "a.id, a.appointmentTime, a.status, d.id, d.name, d.specialty, p.id, p.username) " +
+            "from Appointment a join a.doctor d join a.patient p where a.id in :ids")
+    List<AppointmentView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select coalesce(max(a.id), 0) from Appointment a")
+    long findMaxId();
+
+    @Query("select coalesce(min(a.id), 0) from Appointment a")
+    long findMinId();
+
+    // One id range of the analytics scan; ranges are read in parallel.
+    @Query("select new com.example.healthcare_appointment_api.dto.AppointmentStatusRow(a.id, a.doctor.id, a.appointmentTime, a.status) " +
+            "from Appointment a where a.id > :afterId and a.id <= :toId order by a.id")
+    List<AppointmentStatusRow> findStatusRows(@Param("afterId") Long afterId, @Param("toId") Long toId, Pageable pageable);
+
+    // Guarded by the current status: a row another request changed first is not counted.
+    @Modifying
+    @Query("update Appointment a set a.status = :to where a.id in :ids and a.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") String from, @Param("to") String to);
+
+    @Modifying
+    @Query("delete from Appointment a where a.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,70 @@
+package com.example.healthcare_appointment_api.repository;
+
+import com.example.healthcare_appointment_api.dto.AppointmentStatusRow;
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.model.ArchivedAppointment;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+
+    @Modifying
+    @Query("insert into ArchivedAppointment (id, patient, doctor, appointmentTime, status, archivedAt) " +
+            "select a.id, a.patient, a.doctor, a.appointmentTime, a.status, :archivedAt " +
+            "from Appointment a where a.id in :ids")
+    int copyFromHot(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Query("select new com.example.healthcare_appointment_api.dto.AppointmentView(" +
+            "a.id, a.appointmentTime, a.status, d.id, d.name, d.specialty, p.id, p.username) " +
+            "from ArchivedAppointment a join a.doctor d join a.patient p " +
+            "where d.id = :doctorId and a.appointmentTime < :to " +
+            "and (a.appointmentTime > :afterTime or (a.appointmentTime = :afterTime and a.id > :afterId)) " +
+            "and (:status is null or a.status = :status) " +
+            "order by a.appointmentTime, a.id")
+    List<AppointmentView> findDoctorPage(@Param("doctorId") Long doctorId,
+                                         @Param("afterTime") LocalDateTime afterTime,
+                                         @Param("afterId") Long afterId,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("status") String status,
+                                         Pageable pageable);
+
+    @Query("select new com.example.healthcare_appointment_api.dto.AppointmentView(" +
+            "a.id, a.appointmentTime, a.status, d.id, d.name, d.specialty, p.id, p.username) " +
+            "from ArchivedAppointment a join a.doctor d join a.patient p " +
+            "where p.id = :patientId and a.appointmentTime < :to " +
+            "and (a.appointmentTime > :afterTime or (a.appointmentTime = :afterTime and a.id > :afterId)) " +
+            "and (:status is null or a.status = :status) " +
+            "order by a.appointmentTime, a.id")
+    List<AppointmentView> findPatientPage(@Param("patientId") Long patientId,
+                                          @Param("afterTime") LocalDateTime afterTime,
+                                          @Param("afterId") Long afterId,
+                                          @Param("to") LocalDateTime to,
+                                          @Param("status") String status,
+                                          Pageable pageable);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new com.example.healthcare_appointment_api.dto.AppointmentView(" +
+            "a.id, a.appointmentTime, a.status, d.id, d.name, d.specialty, p.id, p.username) " +
+            "from ArchivedAppointment a left join a.doctor d left join a.patient p order by a.id")
+    Stream<AppointmentView> streamForExport();
+
+    @Query("select coalesce(min(a.id), 0) from ArchivedAppointment a")
+    long findMinId();
+
+    @Query("select coalesce(max(a.id), 0) from ArchivedAppointment a")
+    long findMaxId();
+
+    @Query("select new com.example.healthcare_appointment_api.dto.AppointmentStatusRow(a.id, a.doctor.id, a.appointmentTime, a.status) " +
+            "from ArchivedAppointment a where a.id > :afterId and a.id <= :toId order by a.id")
+    List<AppointmentStatusRow> findStatusRows(@Param("afterId") Long afterId, @Param("toId") Long toId, Pageable pageable);
+}
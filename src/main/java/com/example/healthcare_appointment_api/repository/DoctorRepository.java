@@ -1,13 +1,47 @@
 package com.example.healthcare_appointment_api.repository;
 
+import com.example.healthcare_appointment_api.dto.DoctorView;
 import com.example.healthcare_appointment_api.model.Doctor;
 import com.example.healthcare_appointment_api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findByUser(User user);
+
+    // Read-write so it reads the primary: a lagging replica would roll the directory back past local upserts.
+    @Transactional
+    @Query("select new com.example.healthcare_appointment_api.dto.DoctorView(d.id, d.name, d.specialty, d.contact, u.id) " +
+            "from Doctor d left join d.user u order by d.id")
+    List<DoctorView> findAllViews();
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new com.example.healthcare_appointment_api.dto.DoctorView(d.id, d.name, d.specialty, d.contact, u.id) " +
+            "from Doctor d left join d.user u order by d.id")
+    Stream<DoctorView> streamForExport();
+
+    // Cached until the doctor table next changes; the answer for a patient is cached as well.
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "doctor-by-user")
+    })
+    @Query("select d.id from Doctor d where d.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    @Query("select d.id from Doctor d")
+    List<Long> findAllIds();
+
+    @Query("select d.user.id from Doctor d where d.user is not null")
+    List<Long> findLinkedUserIds();
+
     List<Doctor> findBySpecialty(String specialty);
 }
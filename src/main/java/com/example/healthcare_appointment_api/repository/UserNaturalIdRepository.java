@@ -0,0 +1,14 @@
+package com.example.healthcare_appointment_api.repository;
+
+import com.example.healthcare_appointment_api.model.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+    // Resolved through the natural-id cache, so a warm lookup never reaches the database.
+    Optional<User> findByUsername(String username);
+
+    // For authentication, which runs before there is a user to route read-your-writes for: a cache
+    // miss reads the primary, so a user who registered a moment ago is found even if the replica lags.
+    Optional<User> findByUsernameOnPrimary(String username);
+}
@@ -0,0 +1,27 @@
+package com.example.healthcare_appointment_api.repository;
+
+import com.example.healthcare_appointment_api.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+
+    @Override
+    @Transactional
+    public Optional<User> findByUsernameOnPrimary(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+}
@@ -1,10 +1,35 @@
 package com.example.healthcare_appointment_api.repository;
 
+import com.example.healthcare_appointment_api.dto.RevokedUser;
+import com.example.healthcare_appointment_api.dto.UserExportRow;
 import com.example.healthcare_appointment_api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+import jakarta.persistence.QueryHint;
+
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
+    // One query for users and roles; a full listing would otherwise crowd the entity cache out.
+    @QueryHints(@QueryHint(name = "jakarta.persistence.cache.storeMode", value = "BYPASS"))
+    @Query("select u from User u left join fetch u.roles order by u.id")
+    List<User> findAllWithRoles();
+
+    @Query("select new com.example.healthcare_appointment_api.dto.RevokedUser(u.username, u.tokensRevokedAt, u.disabled) " +
+            "from User u where u.tokensRevokedAt >= :since")
+    List<RevokedUser> findRevokedSince(@Param("since") Instant since);
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new com.example.healthcare_appointment_api.dto.UserExportRow(u.id, u.username, u.disabled) " +
+            "from User u order by u.id")
+    Stream<UserExportRow> streamForExport();
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.healthcare_appointment_api.security;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
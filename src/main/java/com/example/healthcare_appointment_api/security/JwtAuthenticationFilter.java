@@ -1,33 +1,53 @@
 package com.example.healthcare_appointment_api.security;
 
+import com.example.healthcare_appointment_api.config.SampledLogger;
 import com.example.healthcare_appointment_api.model.User;
 import com.example.healthcare_appointment_api.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = Logger.getLogger(JwtAuthenticationFilter.class.getName());
+    private static final SampledLogger rejections = new SampledLogger(logger, 10, TimeUnit.SECONDS);
 
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
+    private final TokenRevocationList revocationList;
+    private final boolean stateless;
+    private final Timer authenticatedTimer;
+    private final Timer anonymousTimer;
+    private final Timer rejectedTimer;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   UserRepository userRepository,
+                                   TokenRevocationList revocationList,
+                                   @Value("${jwt.stateless:false}") boolean stateless,
+                                   MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
+        this.revocationList = revocationList;
+        this.stateless = stateless;
+        this.authenticatedTimer = meterRegistry.timer("auth.filter", "outcome", "authenticated");
+        this.anonymousTimer = meterRegistry.timer("auth.filter", "outcome", "anonymous");
+        this.rejectedTimer = meterRegistry.timer("auth.filter", "outcome", "rejected");
     }
 
     @Override
@@ -35,43 +55,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain chain)
             throws ServletException, IOException {
+        long start = System.nanoTime();
         String header = request.getHeader("Authorization");
-        String token = null;
-        String username;
+        boolean bearer = header != null && header.startsWith("Bearer ");
+        JwtPrincipal principal = null;
 
-        if (header != null && header.startsWith("Bearer ")) {
-            token = header.substring(7);
-            if (jwtUtil.validateToken(token)) {
-                username = jwtUtil.getUsernameFromToken(token);
-                logger.info("JWT token validated for username: " + username);
-            } else {
-                username = null;
-                logger.warning("Invalid JWT token");
-            }
-        } else {
-            username = null;
+        if (bearer) {
+            principal = jwtUtil.verifyToken(header.substring(7));
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + username));
-            String role = jwtUtil.getRoleFromToken(token);
-            UserDetails userDetails = new org.springframework.security.core.userdetails.User(
-                    username,
-                    user.getPassword(),
-                    Collections.singleton(new SimpleGrantedAuthority("ROLE_" + role))
-            );
+        if (principal != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            principal = stateless ? checkRevocation(principal) : checkAgainstUserTable(principal);
+        }
+
+        if (principal != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UsernamePasswordAuthenticationToken auth =
                     new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            Collections.singleton(new SimpleGrantedAuthority("ROLE_" + principal.getRole()))
                     );
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(auth);
-            logger.info("Authentication set for user: " + username + " with role: ROLE_" + role);
         }
 
+        Timer timer = principal != null ? authenticatedTimer : bearer ? rejectedTimer : anonymousTimer;
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private JwtPrincipal checkRevocation(JwtPrincipal principal) {
+        if (principal.getUserId() == null || revocationList.isRevoked(principal)) {
+            rejections.log(Level.WARNING, "token_rejected",
+                    () -> "reason=revoked_or_pre_stateless user=" + principal.getUsername());
+            return null;
+        }
+        return principal;
+    }
+
+    private JwtPrincipal checkAgainstUserTable(JwtPrincipal principal) {
+        String username = principal.getUsername();
+        User user = userRepository.findByUsernameOnPrimary(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        if (user.isDisabled() || (user.getTokensRevokedAt() != null
+                && principal.getIssuedAtMillis() <= user.getTokensRevokedAt().toEpochMilli())) {
+            rejections.log(Level.WARNING, "token_rejected", () -> "reason=revoked user=" + username);
+            return null;
+        }
+        return principal.withUserId(user.getId());
+    }
+}
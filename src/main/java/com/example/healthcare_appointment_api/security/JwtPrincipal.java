@@ -0,0 +1,57 @@
+package com.example.healthcare_appointment_api.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+public class JwtPrincipal implements AuthenticatedPrincipal {
+    private final Long userId;
+    private final String username;
+    private final String role;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+
+    public JwtPrincipal(Long userId, String username, String role, long issuedAtMillis, long expiresAtMillis) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public JwtPrincipal withUserId(Long userId) {
+        return new JwtPrincipal(userId, username, role, issuedAtMillis, expiresAtMillis);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
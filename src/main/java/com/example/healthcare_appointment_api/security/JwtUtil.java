@@ -1,19 +1,30 @@
 package com.example.healthcare_appointment_api.security;
 
+import com.example.healthcare_appointment_api.config.SampledLogger;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Component
 public class JwtUtil {
     private static final Logger logger = Logger.getLogger(JwtUtil.class.getName());
+    private static final SampledLogger invalidTokens = new SampledLogger(logger, 10, TimeUnit.SECONDS);
 
     @Value("${jwt.secret}")
     private String secret;
@@ -21,27 +32,56 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
+    private Timer generateTimer;
+    private Timer cacheHitTimer;
+    private Timer verifiedTimer;
+    private Timer invalidTimer;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = new VerifiedTokenCache(cacheMaxEntries);
+        generateTimer = meterRegistry.timer("jwt.generate");
+        cacheHitTimer = meterRegistry.timer("jwt.verify", "result", "cache_hit");
+        verifiedTimer = meterRegistry.timer("jwt.verify", "result", "verified");
+        invalidTimer = meterRegistry.timer("jwt.verify", "result", "invalid");
     }
 
-    public String generateToken(String username, String role) {
-        logger.info("Generating token for username: " + username + " with role: " + role);
-        return Jwts.builder()
+    public String generateToken(Long userId, String username, String role) {
+        long start = System.nanoTime();
+        logger.fine(() -> "Generating token for username: " + username + " with role: " + role);
+        long now = System.currentTimeMillis();
+        String token = Jwts.builder()
                 .setSubject(username)
+                .claim("uid", userId)
                 .claim("role", role.toUpperCase())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                // iat only has whole seconds; revocation checks need to order the token against a
+                // logout in the same second.
+                .claim("iat_ms", now)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
+                .signWith(signingKey)
                 .compact();
+        generateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
+    }
+
+    public long getExpiration() {
+        return expiration;
     }
 
     public Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String getUsernameFromToken(String token) {
@@ -49,13 +89,7 @@ public class JwtUtil {
     }
 
     public boolean validateToken(String token) {
-        try {
-            getClaimsFromToken(token);
-            return true;
-        } catch (Exception e) {
-            logger.warning("Token validation failed: " + e.getMessage());
-            return false;
-        }
+        return verifyToken(token) != null;
     }
 
     public String getRoleFromToken(String token) {
@@ -63,7 +97,64 @@ public class JwtUtil {
         if (role == null || role.isEmpty()) {
             throw new RuntimeException("Role not found in token");
         }
-        logger.info("Extracted role from token: " + role);
+        logger.fine(() -> "Extracted role from token: " + role);
         return role.toUpperCase();
     }
-}
\ No newline at end of file
+
+    /**
+     * Parses and verifies the token once and returns its principal, or {@code null} if the token
+     * is invalid, expired or carries no role. Verified tokens are cached until they expire.
+     */
+    public JwtPrincipal verifyToken(String token) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        ByteBuffer key = null;
+        if (verifiedTokens.isEnabled()) {
+            key = verifiedTokens.keyFor(token);
+            JwtPrincipal cached = verifiedTokens.get(key, now);
+            if (cached != null) {
+                cacheHitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+        }
+        JwtPrincipal principal;
+        try {
+            principal = toPrincipal(getClaimsFromToken(token));
+        } catch (Exception e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            invalidTokens.log(Level.WARNING, "token_invalid",
+                    () -> "reason=" + e.getClass().getSimpleName() + " message=\"" + e.getMessage() + "\"");
+            return null;
+        }
+        if (principal == null) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            invalidTokens.log(Level.WARNING, "token_invalid", () -> "reason=missing_role");
+            return null;
+        }
+        if (key != null) {
+            verifiedTokens.put(key, principal, now);
+        }
+        verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return principal;
+    }
+
+    private JwtPrincipal toPrincipal(Claims claims) {
+        String role = claims.get("role", String.class);
+        if (role == null || role.isEmpty()) {
+            return null;
+        }
+        Long issuedAtMillis = claims.get("iat_ms", Long.class);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiresAt = claims.getExpiration();
+        if (issuedAtMillis == null) {
+            issuedAtMillis = issuedAt != null ? issuedAt.getTime() : 0L;
+        }
+        return new JwtPrincipal(
+                claims.get("uid", Long.class),
+                claims.getSubject(),
+                role.toUpperCase(),
+                issuedAtMillis,
+                expiresAt != null ? expiresAt.getTime() : Long.MAX_VALUE
+        );
+    }
+}
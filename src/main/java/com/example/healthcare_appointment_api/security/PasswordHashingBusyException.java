@@ -0,0 +1,14 @@
+package com.example.healthcare_appointment_api.security;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.healthcare_appointment_api.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Per-client token buckets for the endpoints listed in {@code rate-limit.rules}, checked right
+ * after JwtAuthenticationFilter. Clients are the authenticated username, or the remote address
+ * for /api/auth/** and anonymous calls. A rule reads {@code METHOD /path/pattern permits/period
+ * [burst]}, e.g. {@code POST /api/auth/login 20/1m 10}; the first matching rule applies and
+ * requests no rule matches pass untouched.
+ *
+ * Each bucket is one AtomicLong holding the time at which it will be full again (the generic
+ * cell rate algorithm), so a check is a map lookup and a compare-and-set. Refused requests get
+ * 429 with Retry-After. A full bucket is the same as no bucket, so idle ones are dropped every
+ * {@code rate-limit.sweep-ms}; beyond {@code rate-limit.max-clients} per rule, new clients pass
+ * unchecked until the next sweep and are counted as overflow.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = Logger.getLogger(RateLimitFilter.class.getName());
+    private static final PathPattern AUTH_PATHS = PathPatternParser.defaultInstance.parse("/api/auth/**");
+
+    private final boolean enabled;
+    private final List<Rule> rules;
+    private final int maxClients;
+    private final LongSupplier clock;
+
+    @Autowired
+    public RateLimitFilter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.rules:}") String[] rules,
+                           @Value("${rate-limit.max-clients:100000}") int maxClients,
+                           MeterRegistry meterRegistry) {
+        this(enabled, rules, maxClients, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(boolean enabled, String[] rules, int maxClients, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.enabled = enabled;
+        this.maxClients = Math.max(1, maxClients);
+        this.clock = clock;
+        this.rules = new ArrayList<>(rules.length);
+        for (String rule : rules) {
+            if (!rule.isBlank()) {
+                this.rules.add(Rule.parse(rule.trim(), meterRegistry));
+            }
+        }
+        if (enabled && !this.rules.isEmpty()) {
+            logger.info("Rate limiting " + this.rules.size() + " endpoint rules");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || rules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain)
+            throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        Rule rule = match(request.getMethod(), path);
+        if (rule != null) {
+            long waitNanos = rule.acquire(client(request, path), clock.getAsLong(), maxClients);
+            if (waitNanos > 0) {
+                rule.rejected.increment();
+                long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                response.setContentType("text/plain");
+                response.getWriter().write("Too many requests, try again in " + retryAfterSeconds + " s");
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Drops buckets that have refilled; a client that comes back starts from a full one anyway.
+    @Scheduled(initialDelayString = "${rate-limit.sweep-ms:60000}", fixedDelayString = "${rate-limit.sweep-ms:60000}")
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        for (Rule rule : rules) {
+            rule.buckets.values().removeIf(fullAt -> fullAt.get() - now <= 0);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Rule rule : rules) {
+            size += rule.buckets.size();
+        }
+        return size;
+    }
+
+    private Rule match(String method, PathContainer path) {
+        for (Rule rule : rules) {
+            if ((rule.method == null || rule.method.equals(method)) && rule.pattern.matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String client(HttpServletRequest request, PathContainer path) {
+        if (!AUTH_PATHS.matches(path)) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.getPrincipal() instanceof JwtPrincipal principal) {
+                return "user:" + principal.getUsername();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    static final class Rule {
+        final String method;
+        final PathPattern pattern;
+        final long intervalNanos;
+        final long toleranceNanos;
+        final Counter rejected;
+        final Counter overflow;
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+        private Rule(String method, String pattern, long permits, long periodNanos, long burst, MeterRegistry meterRegistry) {
+            this.method = method;
+            this.pattern = PathPatternParser.defaultInstance.parse(pattern);
+            this.intervalNanos = Math.max(1, periodNanos / permits);
+            this.toleranceNanos = (burst - 1) * intervalNanos;
+            String endpoint = (method != null ? method : "*") + " " + pattern;
+            this.rejected = Counter.builder("rate.limit.rejected").tag("endpoint", endpoint).register(meterRegistry);
+            this.overflow = Counter.builder("rate.limit.overflow").tag("endpoint", endpoint).register(meterRegistry);
+            Gauge.builder("rate.limit.clients", buckets, ConcurrentHashMap::size).tag("endpoint", endpoint).register(meterRegistry);
+        }
+
+        // "METHOD /pattern permits/period [burst]"; METHOD may be *, period is a number of s, m or h.
+        static Rule parse(String rule, MeterRegistry meterRegistry) {
+            String[] parts = rule.split("\\s+");
+            if (parts.length < 3 || parts.length > 4) {
+                throw new IllegalArgumentException("Invalid rate limit rule: " + rule);
+            }
+            try {
+                String[] rate = parts[2].split("/");
+                long permits = Long.parseLong(rate[0]);
+                String period = rate[1];
+                long amount = period.length() > 1 ? Long.parseLong(period.substring(0, period.length() - 1)) : 1;
+                TimeUnit unit = switch (period.charAt(period.length() - 1)) {
+                    case 's' -> TimeUnit.SECONDS;
+                    case 'm' -> TimeUnit.MINUTES;
+                    case 'h' -> TimeUnit.HOURS;
+                    default -> throw new IllegalArgumentException("Unknown period unit in " + period);
+                };
+                long burst = parts.length == 4 ? Long.parseLong(parts[3]) : permits;
+                if (permits < 1 || amount < 1 || burst < 1) {
+                    throw new IllegalArgumentException("Rates and bursts must be positive");
+                }
+                return new Rule("*".equals(parts[0]) ? null : parts[0].toUpperCase(), parts[1],
+                        permits, unit.toNanos(amount), burst, meterRegistry);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid rate limit rule: " + rule, e);
+            }
+        }
+
+        // Returns 0 and takes a token, or how long until one is available.
+        long acquire(String client, long now, int maxClients) {
+            AtomicLong fullAt = buckets.get(client);
+            if (fullAt == null) {
+                if (buckets.size() >= maxClients) {
+                    overflow.increment();
+                    return 0;
+                }
+                fullAt = buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+            }
+            while (true) {
+                long current = fullAt.get();
+                long base = current - now > 0 ? current : now;
+                long wait = base - now - toleranceNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, base + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.healthcare_appointment_api.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Opaque, single-use refresh tokens kept in memory and keyed by the first 128 bits of
+ * SHA-256(token), so the raw token is never stored. Every refresh rotates the token; the used
+ * one stays behind as a tombstone until it would have expired, and presenting it again
+ * revokes the whole login (family) it belongs to.
+ */
+@Component
+public class RefreshTokenStore {
+    private static final Logger logger = Logger.getLogger(RefreshTokenStore.class.getName());
+    private static final int TOKEN_BYTES = 32;
+
+    private final long lifetimeMillis;
+    private final TokenRevocationList tokenRevocationList;
+    private final SecureRandom random = new SecureRandom();
+    private final MessageDigest digestPrototype;
+    private final AtomicLong nextFamily = new AtomicLong();
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Key> currentByFamily = new ConcurrentHashMap<>();
+
+    public RefreshTokenStore(@Value("${jwt.refresh.expiration-ms:1209600000}") long lifetimeMillis,
+                             TokenRevocationList tokenRevocationList) {
+        this.lifetimeMillis = lifetimeMillis;
+        this.tokenRevocationList = tokenRevocationList;
+        try {
+            this.digestPrototype = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public String issue(Long userId, String username, String role) {
+        return store(new Entry(userId, username, role, nextFamily.incrementAndGet(),
+                System.currentTimeMillis(), false));
+    }
+
+    /**
+     * Consumes a refresh token and returns its successor, or null if the token is unknown,
+     * expired, already used, or belongs to a user whose tokens were revoked.
+     */
+    public Rotation rotate(String token) {
+        Key key = keyFor(token);
+        Entry entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (entry == null) {
+            return null;
+        }
+        if (entry.used) {
+            revokeFamily(entry.family);
+            logger.warning("Refresh token reuse detected for user: " + entry.username);
+            return null;
+        }
+        if (entry.issuedAtMillis + lifetimeMillis <= now || isRevoked(entry)) {
+            entries.remove(key, entry);
+            currentByFamily.remove(entry.family, key);
+            return null;
+        }
+        if (!entries.replace(key, entry, entry.markUsed())) {
+            return null;
+        }
+        String successor = store(new Entry(entry.userId, entry.username, entry.role, entry.family, now, false));
+        return new Rotation(entry.userId, entry.username, entry.role, successor);
+    }
+
+    public long getLifetimeMillis() {
+        return lifetimeMillis;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(initialDelayString = "${jwt.refresh.prune-ms:60000}", fixedDelayString = "${jwt.refresh.prune-ms:60000}")
+    public void pruneExpired() {
+        long horizon = System.currentTimeMillis() - lifetimeMillis;
+        entries.entrySet().removeIf(e -> {
+            if (e.getValue().issuedAtMillis > horizon) {
+                return false;
+            }
+            currentByFamily.remove(e.getValue().family, e.getKey());
+            return true;
+        });
+    }
+
+    private String store(Entry entry) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Key key = keyFor(token);
+        entries.put(key, entry);
+        currentByFamily.put(entry.family, key);
+        return token;
+    }
+
+    private void revokeFamily(long family) {
+        Key current = currentByFamily.remove(family);
+        if (current != null) {
+            entries.remove(current);
+        }
+    }
+
+    private boolean isRevoked(Entry entry) {
+        return tokenRevocationList.isRevoked(entry.username, entry.issuedAtMillis);
+    }
+
+    private Key keyFor(String token) {
+        MessageDigest digest;
+        try {
+            digest = (MessageDigest) digestPrototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new Key(hash.getLong(), hash.getLong());
+    }
+
+    public static final class Rotation {
+        private final Long userId;
+        private final String username;
+        private final String role;
+        private final String refreshToken;
+
+        Rotation(Long userId, String username, String role, String refreshToken) {
+            this.userId = userId;
+            this.username = username;
+            this.role = role;
+            this.refreshToken = refreshToken;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+
+    private static final class Key {
+        private final long high;
+        private final long low;
+
+        private Key(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (low ^ (low >>> 32));
+        }
+    }
+
+    private static final class Entry {
+        private final Long userId;
+        private final String username;
+        private final String role;
+        private final long family;
+        private final long issuedAtMillis;
+        private final boolean used;
+
+        private Entry(Long userId, String username, String role, long family, long issuedAtMillis, boolean used) {
+            this.userId = userId;
+            this.username = username;
+            this.role = role;
+            this.family = family;
+            this.issuedAtMillis = issuedAtMillis;
+            this.used = used;
+        }
+
+        private Entry markUsed() {
+            return new Entry(userId, username, role, family, issuedAtMillis, true);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.healthcare_appointment_api.security;
+
+import com.example.healthcare_appointment_api.dto.RevokedUser;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Users whose tokens must no longer be accepted, kept in memory so stateless authentication never
+ * has to consult the user table. A Bloom filter answers the common "not revoked" case; the exact
+ * map settles the rare maybe. Refreshed incrementally from {@code users.tokens_revoked_at}.
+ */
+@Component
+public class TokenRevocationList {
+    private static final Logger logger = Logger.getLogger(TokenRevocationList.class.getName());
+    private static final int HASHES = 4;
+    private static final long DISABLED = Long.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final long tokenLifetimeMillis;
+    private final int bloomBits;
+    private final ConcurrentHashMap<String, Long> revokedAtByUsername = new ConcurrentHashMap<>();
+    // Not a monitor: refresh() holds it across a database query, which would pin a virtual thread.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile AtomicLongArray bloom;
+    private volatile Instant lastSeen = Instant.EPOCH;
+
+    // Revocations must outlive refresh tokens as well as access tokens.
+    public TokenRevocationList(UserRepository userRepository,
+                               @Value("#{T(java.lang.Math).max(${jwt.expiration}, ${jwt.refresh.expiration-ms:1209600000})}")
+                               long tokenLifetimeMillis,
+                               @Value("${jwt.revocation.bloom-bits:1048576}") int bloomBits) {
+        this.userRepository = userRepository;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        this.bloomBits = Integer.highestOneBit(Math.max(64, bloomBits));
+        this.bloom = new AtomicLongArray(this.bloomBits / 64);
+    }
+
+    @PostConstruct
+    void load() {
+        refresh();
+        logger.info("Loaded " + revokedAtByUsername.size() + " revoked users");
+    }
+
+    @Scheduled(initialDelayString = "${jwt.revocation.refresh-ms:5000}", fixedDelayString = "${jwt.revocation.refresh-ms:5000}")
+    public void refresh() {
+        writeLock.lock();
+        try {
+            Instant since = lastSeen;
+            Instant newest = since;
+            for (RevokedUser user : userRepository.findRevokedSince(since)) {
+                long revokedAt = user.isDisabled() ? DISABLED : user.getTokensRevokedAt().toEpochMilli();
+                revokedAtByUsername.put(user.getUsername(), revokedAt);
+                addToBloom(user.getUsername());
+                if (user.getTokensRevokedAt().isAfter(newest)) {
+                    newest = user.getTokensRevokedAt();
+                }
+            }
+            lastSeen = newest;
+            pruneExpired();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void revoke(String username, Instant revokedAt, boolean disabled) {
+        writeLock.lock();
+        try {
+            revokedAtByUsername.put(username, disabled ? DISABLED : revokedAt.toEpochMilli());
+            addToBloom(username);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        return isRevoked(principal.getUsername(), principal.getIssuedAtMillis());
+    }
+
+    public boolean isRevoked(String username, long issuedAtMillis) {
+        Long revokedAt = revokedAt(username);
+        return revokedAt != null && issuedAtMillis <= revokedAt;
+    }
+
+    private Long revokedAt(String username) {
+        return mightContain(username) ? revokedAtByUsername.get(username) : null;
+    }
+
+    // Disables made through another instance show up here within one refresh.
+    public boolean isDisabled(String username) {
+        Long revokedAt = revokedAtByUsername.get(username);
+        return revokedAt != null && revokedAt == DISABLED;
+    }
+
+    public int size() {
+        return revokedAtByUsername.size();
+    }
+
+    // A revocation older than the longest token lifetime can no longer match any live token.
+    private void pruneExpired() {
+        long horizon = System.currentTimeMillis() - tokenLifetimeMillis;
+        if (!revokedAtByUsername.values().removeIf(revokedAt -> revokedAt < horizon)) {
+            return;
+        }
+        AtomicLongArray rebuilt = new AtomicLongArray(bloomBits / 64);
+        for (Map.Entry<String, Long> entry : revokedAtByUsername.entrySet()) {
+            addToBloom(rebuilt, entry.getKey());
+        }
+        bloom = rebuilt;
+    }
+
+    private void addToBloom(String username) {
+        addToBloom(bloom, username);
+    }
+
+    private void addToBloom(AtomicLongArray bits, String username) {
+        long hash = mix(username.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & (bloomBits - 1);
+            int word = bit >>> 6;
+            long mask = 1L << (bit & 63);
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    private boolean mightContain(String username) {
+        AtomicLongArray bits = bloom;
+        long hash = mix(username.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & (bloomBits - 1);
+            if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
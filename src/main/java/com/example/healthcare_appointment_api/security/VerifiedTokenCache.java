@@ -0,0 +1,79 @@
+package com.example.healthcare_appointment_api.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded map from SHA-256(token) to the principal it verified to. Entries never outlive the
+ * token's own expiry, so a hit is always as good as a fresh signature check.
+ */
+class VerifiedTokenCache {
+    private final int maxEntries;
+    private final MessageDigest digestPrototype;
+    private final ConcurrentHashMap<ByteBuffer, JwtPrincipal> entries;
+
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>(Math.max(16, maxEntries));
+        try {
+            this.digestPrototype = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    ByteBuffer keyFor(String token) {
+        return ByteBuffer.wrap(newDigest().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    JwtPrincipal get(ByteBuffer key, long nowMillis) {
+        JwtPrincipal principal = entries.get(key);
+        if (principal != null && principal.isExpired(nowMillis)) {
+            entries.remove(key, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    void put(ByteBuffer key, JwtPrincipal principal, long nowMillis) {
+        if (entries.size() >= maxEntries) {
+            evict(nowMillis);
+        }
+        entries.put(key, principal);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    private void evict(long nowMillis) {
+        entries.values().removeIf(p -> p.isExpired(nowMillis));
+        int target = maxEntries - Math.max(1, maxEntries / 10);
+        Iterator<Map.Entry<ByteBuffer, JwtPrincipal>> it = entries.entrySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return (MessageDigest) digestPrototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest is not cloneable", e);
+        }
+    }
+}
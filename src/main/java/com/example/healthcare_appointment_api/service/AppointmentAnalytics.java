@@ -0,0 +1,505 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.AnalyticsReport;
+import com.example.healthcare_appointment_api.dto.AppointmentStatusRow;
+import com.example.healthcare_appointment_api.dto.DoctorView;
+import com.example.healthcare_appointment_api.model.AppointmentStatus;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.ArchivedAppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+/**
+ * Appointment counts per day, per doctor and status, and per hour of day, held in memory for the
+ * analytics endpoint. AppointmentService and ImportService report every booking and status change
+ * as it commits; the counters are striped LongAdders in per-day buckets, so concurrent bookings do
+ * not contend. The counts cover the hot table and the archive, so archiving moves nothing.
+ *
+ * At startup, and every {@code appointment.analytics.reconcile-ms} to pick up changes made through
+ * other instances, the counts are rebuilt from both tables by scanning id ranges in parallel in
+ * read-only transactions. Changes that commit during a rebuild are applied to the new counts as
+ * well once the scan has passed their id; one that lands while its own page is being read may be
+ * off until the next rebuild. The difference found at each rebuild is exported as drift.
+ *
+ * Reports for a date range are built from the counters without touching the database and reused
+ * for {@code appointment.analytics.report-cache-ms}.
+ */
+@Component
+public class AppointmentAnalytics {
+    private static final Logger logger = Logger.getLogger(AppointmentAnalytics.class.getName());
+    private static final AppointmentStatus[] STATUSES = AppointmentStatus.values();
+    private static final int CANCELLED = AppointmentStatus.CANCELLED.ordinal();
+    private static final int SCAN_PAGE_SIZE = 10_000;
+    private static final int RANGES_PER_THREAD = 4;
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int MAX_CACHED_REPORTS = 64;
+    private static final AtomicInteger SCAN_THREADS = new AtomicInteger();
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final AppointmentArchiver appointmentArchiver;
+    private final DoctorDirectory doctorDirectory;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int scanThreads;
+    private final int slotsPerDay;
+    private final long reportCacheNanos;
+    private final ReentrantLock rebuilding = new ReentrantLock();
+    // Held shared by every update and exclusively to start or finish a rebuild.
+    private final ReentrantReadWriteLock swap = new ReentrantReadWriteLock();
+    private final ConcurrentHashMap<String, CachedReport> reports = new ConcurrentHashMap<>();
+    private final Timer rebuildTimer;
+    private final Counter drift;
+
+    private volatile Counts counts = new Counts();
+    private volatile Scan scan;
+    private volatile Instant rebuiltAt;
+
+    public AppointmentAnalytics(AppointmentRepository appointmentRepository,
+                                ArchivedAppointmentRepository archivedAppointmentRepository,
+                                AppointmentArchiver appointmentArchiver,
+                                DoctorDirectory doctorDirectory,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${appointment.analytics.scan-threads:4}") int scanThreads,
+                                @Value("${appointment.analytics.slots-per-day:16}") int slotsPerDay,
+                                @Value("${appointment.analytics.report-cache-ms:5000}") long reportCacheMillis,
+                                MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.appointmentArchiver = appointmentArchiver;
+        this.doctorDirectory = doctorDirectory;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.scanThreads = Math.max(1, scanThreads);
+        this.slotsPerDay = Math.max(1, slotsPerDay);
+        this.reportCacheNanos = TimeUnit.MILLISECONDS.toNanos(reportCacheMillis);
+        this.rebuildTimer = Timer.builder("appointment.analytics.rebuild").register(meterRegistry);
+        this.drift = Counter.builder("appointment.analytics.drift").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${appointment.analytics.reconcile-ms:3600000}", fixedDelayString = "${appointment.analytics.reconcile-ms:3600000}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    public void booked(long id, long doctorId, LocalDateTime time) {
+        apply(id, doctorId, time, -1, AppointmentStatus.PENDING.ordinal());
+    }
+
+    public void statusChanged(long id, long doctorId, LocalDateTime time, AppointmentStatus from, AppointmentStatus to) {
+        apply(id, doctorId, time, from.ordinal(), to.ordinal());
+    }
+
+    // Imported rows are newer than any running scan, so they count towards its result too.
+    public void imported(long doctorId, LocalDateTime time, AppointmentStatus status) {
+        apply(Long.MAX_VALUE, doctorId, time, -1, status.ordinal());
+    }
+
+    private void apply(long id, long doctorId, LocalDateTime time, int from, int to) {
+        swap.readLock().lock();
+        try {
+            counts.move(doctorId, time, from, to);
+            Scan running = scan;
+            if (running != null && running.hasPassed(id)) {
+                running.counts.move(doctorId, time, from, to);
+            }
+        } finally {
+            swap.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recounts both tables and swaps the result in; returns at once if a rebuild is already
+     * running. Archiving on this instance waits until the scan is done.
+     */
+    public void rebuild() {
+        if (!rebuilding.tryLock()) {
+            return;
+        }
+        try {
+            appointmentArchiver.whilePaused(() -> {
+                rebuildTimer.record(this::scanAndSwap);
+                return null;
+            });
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+
+    private void scanAndSwap() {
+        long start = System.nanoTime();
+        long[] hot = readOnlyTransaction.execute(status ->
+                new long[]{appointmentRepository.findMinId(), appointmentRepository.findMaxId()});
+        long[] archived = readOnlyTransaction.execute(status ->
+                new long[]{archivedAppointmentRepository.findMinId(), archivedAppointmentRepository.findMaxId()});
+        Scan next = new Scan(new Counts(), split(hot[0], hot[1]));
+        List<Range> archiveRanges = split(archived[0], archived[1]);
+
+        swap.writeLock().lock();
+        try {
+            scan = next;
+        } finally {
+            swap.writeLock().unlock();
+        }
+        long rows = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(scanThreads, runnable -> {
+            Thread thread = new Thread(runnable, "appointment-analytics-" + SCAN_THREADS.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Long>> scans = new ArrayList<>();
+            for (Range range : next.hotRanges) {
+                scans.add(pool.submit(() -> scanRange(appointmentRepository::findStatusRows, range, next.counts)));
+            }
+            for (Range range : archiveRanges) {
+                scans.add(pool.submit(() -> scanRange(archivedAppointmentRepository::findStatusRows, range, next.counts)));
+            }
+            for (Future<Long> result : scans) {
+                rows += result.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            scan = null;
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RuntimeException("Analytics rebuild failed", e instanceof ExecutionException ? e.getCause() : e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        Counts previous;
+        boolean first = rebuiltAt == null;
+        swap.writeLock().lock();
+        try {
+            previous = counts;
+            counts = next.counts;
+            scan = null;
+            rebuiltAt = Instant.now();
+            reports.clear();
+        } finally {
+            swap.writeLock().unlock();
+        }
+        long difference = first ? 0 : previous.difference(next.counts);
+        drift.increment(difference);
+        logger.info(String.format("Counted %d appointments for analytics in %.1f ms on %d threads%s",
+                rows, (System.nanoTime() - start) / 1e6, scanThreads,
+                first ? "" : ", " + difference + " differed from the live counts"));
+    }
+
+    private long scanRange(StatusRowQuery query, Range range, Counts target) {
+        long afterId = range.after;
+        long rows = 0;
+        List<AppointmentStatusRow> page;
+        do {
+            long from = afterId;
+            page = readOnlyTransaction.execute(status -> query.find(from, range.to, PageRequest.of(0, SCAN_PAGE_SIZE)));
+            for (AppointmentStatusRow row : page) {
+                int status = index(row.getStatus());
+                if (row.getDoctorId() != null && row.getAppointmentTime() != null && status >= 0) {
+                    target.move(row.getDoctorId(), row.getAppointmentTime(), -1, status);
+                }
+                afterId = row.getId();
+            }
+            range.scannedThrough = afterId;
+            rows += page.size();
+        } while (page.size() == SCAN_PAGE_SIZE);
+        range.scannedThrough = range.to;
+        return rows;
+    }
+
+    // Ids in (min - 1, max], cut into contiguous ranges for the scan threads.
+    private List<Range> split(long minId, long maxId) {
+        List<Range> ranges = new ArrayList<>();
+        if (maxId <= 0) {
+            return ranges;
+        }
+        long after = minId - 1;
+        long width = Math.max(1, (maxId - after + scanThreads * RANGES_PER_THREAD - 1) / (scanThreads * RANGES_PER_THREAD));
+        while (after < maxId) {
+            long to = Math.min(maxId, after + width);
+            ranges.add(new Range(after, to));
+            after = to;
+        }
+        return ranges;
+    }
+
+    // Rows stored before statuses were set count as pending; unknown values are left out.
+    private static int index(String status) {
+        if (status == null) {
+            return AppointmentStatus.PENDING.ordinal();
+        }
+        try {
+            return AppointmentStatus.parse(status).ordinal();
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Counts for every day from {@code from} to {@code to}, inclusive. Utilization is the share
+     * of {@code appointment.analytics.slots-per-day} per day taken by appointments that are not
+     * cancelled; a specialty's is over all of its doctors.
+     */
+    public AnalyticsReport report(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("'to' must not be before 'from'");
+        }
+        long dayCount = ChronoUnit.DAYS.between(from, to) + 1;
+        if (dayCount > MAX_RANGE_DAYS) {
+            throw new RuntimeException("At most " + MAX_RANGE_DAYS + " days can be reported at once");
+        }
+        String key = from + "/" + to;
+        long now = System.nanoTime();
+        CachedReport cached = reports.get(key);
+        if (cached != null && now - cached.builtAt < reportCacheNanos) {
+            return cached.report;
+        }
+        AnalyticsReport report = build(counts, from, to, dayCount);
+        if (reports.size() >= MAX_CACHED_REPORTS) {
+            reports.clear();
+        }
+        reports.put(key, new CachedReport(report, now));
+        return report;
+    }
+
+    private AnalyticsReport build(Counts source, LocalDate from, LocalDate to, long dayCount) {
+        long[] totals = new long[STATUSES.length];
+        long[] byHour = new long[24];
+        Map<Long, long[]> byDoctor = new HashMap<>();
+        List<AnalyticsReport.DayCounts> days = new ArrayList<>((int) dayCount);
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Day day = source.days.get(date.toEpochDay());
+            long[] dayTotals = new long[STATUSES.length];
+            if (day != null) {
+                for (int status = 0; status < STATUSES.length; status++) {
+                    dayTotals[status] = day.byStatus[status].sum();
+                    totals[status] += dayTotals[status];
+                }
+                for (int hour = 0; hour < 24; hour++) {
+                    byHour[hour] += day.activeByHour[hour].sum();
+                }
+                day.byDoctor.forEach((doctorId, doctorCounts) -> {
+                    long[] sum = byDoctor.computeIfAbsent(doctorId, id -> new long[STATUSES.length]);
+                    for (int status = 0; status < STATUSES.length; status++) {
+                        sum[status] += doctorCounts.get(status);
+                    }
+                });
+            }
+            days.add(new AnalyticsReport.DayCounts(date, named(dayTotals)));
+        }
+
+        long slots = dayCount * slotsPerDay;
+        List<DoctorView> directory = doctorDirectory.current().getAllDoctors();
+        List<AnalyticsReport.DoctorUtilization> doctors = new ArrayList<>(directory.size());
+        Map<String, long[]> bySpecialty = new TreeMap<>();
+        Map<String, Integer> doctorsBySpecialty = new HashMap<>();
+        for (DoctorView doctor : directory) {
+            long[] doctorCounts = byDoctor.remove(doctor.getId());
+            if (doctorCounts == null) {
+                doctorCounts = new long[STATUSES.length];
+            }
+            doctors.add(new AnalyticsReport.DoctorUtilization(doctor.getId(), doctor.getName(), doctor.getSpecialty(),
+                    named(doctorCounts), utilization(doctorCounts, slots)));
+            String specialty = doctor.getSpecialty() != null ? doctor.getSpecialty() : "";
+            long[] specialtyCounts = bySpecialty.computeIfAbsent(specialty, name -> new long[STATUSES.length]);
+            for (int status = 0; status < STATUSES.length; status++) {
+                specialtyCounts[status] += doctorCounts[status];
+            }
+            doctorsBySpecialty.merge(specialty, 1, Integer::sum);
+        }
+        // Doctors no longer in the directory still hold their appointments.
+        byDoctor.forEach((doctorId, doctorCounts) -> doctors.add(new AnalyticsReport.DoctorUtilization(
+                doctorId, null, null, named(doctorCounts), utilization(doctorCounts, slots))));
+        doctors.sort(Comparator.comparing(AnalyticsReport.DoctorUtilization::getDoctorId));
+
+        List<AnalyticsReport.SpecialtyUtilization> specialties = new ArrayList<>(bySpecialty.size());
+        bySpecialty.forEach((specialty, specialtyCounts) -> {
+            int doctorsInSpecialty = doctorsBySpecialty.get(specialty);
+            specialties.add(new AnalyticsReport.SpecialtyUtilization(specialty, doctorsInSpecialty,
+                    named(specialtyCounts), utilization(specialtyCounts, slots * doctorsInSpecialty)));
+        });
+        return new AnalyticsReport(from, to, rebuiltAt, named(totals), Arrays.stream(byHour).boxed().toList(),
+                days, doctors, specialties);
+    }
+
+    private static Map<String, Long> named(long[] byStatus) {
+        Map<String, Long> named = new LinkedHashMap<>();
+        for (AppointmentStatus status : STATUSES) {
+            named.put(status.name(), byStatus[status.ordinal()]);
+        }
+        return named;
+    }
+
+    private static double utilization(long[] byStatus, long slots) {
+        long active = 0;
+        for (int status = 0; status < byStatus.length; status++) {
+            if (status != CANCELLED) {
+                active += byStatus[status];
+            }
+        }
+        return Math.round(active * 10_000.0 / slots) / 10_000.0;
+    }
+
+    private interface StatusRowQuery {
+        List<AppointmentStatusRow> find(Long afterId, Long toId, Pageable pageable);
+    }
+
+    static final class Counts {
+        final ConcurrentHashMap<Long, Day> days = new ConcurrentHashMap<>();
+
+        // Moves one appointment out of status "from" and into "to"; -1 for neither.
+        void move(long doctorId, LocalDateTime time, int from, int to) {
+            long epochDay = time.toLocalDate().toEpochDay();
+            Day day = days.get(epochDay);
+            if (day == null) {
+                day = days.computeIfAbsent(epochDay, key -> new Day());
+            }
+            day.move(doctorId, time.getHour(), from, to);
+        }
+
+        long difference(Counts other) {
+            long difference = 0;
+            for (Map.Entry<Long, Day> entry : days.entrySet()) {
+                difference += entry.getValue().difference(other.days.get(entry.getKey()));
+            }
+            for (Map.Entry<Long, Day> entry : other.days.entrySet()) {
+                if (!days.containsKey(entry.getKey())) {
+                    difference += entry.getValue().difference(null);
+                }
+            }
+            return difference;
+        }
+    }
+
+    static final class Day {
+        final LongAdder[] byStatus = adders(STATUSES.length);
+        final LongAdder[] activeByHour = adders(24);
+        final ConcurrentHashMap<Long, AtomicLongArray> byDoctor = new ConcurrentHashMap<>();
+
+        void move(long doctorId, int hour, int from, int to) {
+            AtomicLongArray doctor = byDoctor.get(doctorId);
+            if (doctor == null) {
+                doctor = byDoctor.computeIfAbsent(doctorId, key -> new AtomicLongArray(STATUSES.length));
+            }
+            if (from >= 0) {
+                byStatus[from].decrement();
+                doctor.decrementAndGet(from);
+                if (from != CANCELLED) {
+                    activeByHour[hour].decrement();
+                }
+            }
+            if (to >= 0) {
+                byStatus[to].increment();
+                doctor.incrementAndGet(to);
+                if (to != CANCELLED) {
+                    activeByHour[hour].increment();
+                }
+            }
+        }
+
+        long difference(Day other) {
+            long difference = 0;
+            for (int status = 0; status < STATUSES.length; status++) {
+                difference += Math.abs(byStatus[status].sum() - (other == null ? 0 : other.byStatus[status].sum()));
+            }
+            return difference;
+        }
+
+        private static LongAdder[] adders(int size) {
+            LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+
+    private static final class Range {
+        final long after;
+        final long to;
+        volatile long scannedThrough;
+
+        Range(long after, long to) {
+            this.after = after;
+            this.to = to;
+            this.scannedThrough = after;
+        }
+    }
+
+    private static final class Scan {
+        final Counts counts;
+        final List<Range> hotRanges;
+
+        Scan(Counts counts, List<Range> hotRanges) {
+            this.counts = counts;
+            this.hotRanges = hotRanges;
+        }
+
+        // True if the scan has read this row already, or never will because it is newer.
+        boolean hasPassed(long id) {
+            int low = 0;
+            int high = hotRanges.size() - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                Range range = hotRanges.get(middle);
+                if (id <= range.after) {
+                    high = middle - 1;
+                } else if (id > range.to) {
+                    low = middle + 1;
+                } else {
+                    return id <= range.scannedThrough;
+                }
+            }
+            return hotRanges.isEmpty() || id > hotRanges.get(hotRanges.size() - 1).to;
+        }
+    }
+
+    private static final class CachedReport {
+        final AnalyticsReport report;
+        final long builtAt;
+
+        CachedReport(AnalyticsReport report, long builtAt) {
+            this.report = report;
+            this.builtAt = builtAt;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.BookedSlot;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.ArchivedAppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Moves appointments older than the horizon from the appointment table into appointment_archive,
+ * one bounded batch per transaction with a pause in between, so the hot table and the slot index
+ * only hold recent and upcoming bookings. A batch copies and deletes the same ids in one
+ * transaction; if two instances pick the same batch, the second fails on the archive's primary key
+ * and rolls back.
+ */
+@Component
+public class AppointmentArchiver {
+    private static final Logger logger = Logger.getLogger(AppointmentArchiver.class.getName());
+
+    private final AppointmentRepository appointmentRepository;
+    private final ArchivedAppointmentRepository archivedAppointmentRepository;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final TransactionTemplate transaction;
+    private final long horizonDays;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final ReentrantLock running = new ReentrantLock();
+    private final Counter rowsMoved;
+    private final Timer batchTimer;
+
+    public AppointmentArchiver(AppointmentRepository appointmentRepository,
+                               ArchivedAppointmentRepository archivedAppointmentRepository,
+                               SlotOccupancyIndex slotOccupancyIndex,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${appointment.archive.horizon-days:90}") long horizonDays,
+                               @Value("${appointment.archive.batch-size:1000}") int batchSize,
+                               @Value("${appointment.archive.pause-ms:100}") long pauseMillis,
+                               MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.slotOccupancyIndex = slotOccupancyIndex;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.rowsMoved = Counter.builder("appointment.archive.rows").register(meterRegistry);
+        this.batchTimer = Timer.builder("appointment.archive.batch").register(meterRegistry);
+    }
+
+    /**
+     * Appointments before this time may be in the archive; anything later is always in the hot
+     * table. Derived from the clock and the horizon alone, so every instance agrees without
+     * sharing state.
+     */
+    public LocalDateTime archiveCutoff() {
+        return LocalDateTime.now().minusDays(horizonDays);
+    }
+
+    @Scheduled(initialDelayString = "${appointment.archive.interval-ms:3600000}", fixedDelayString = "${appointment.archive.interval-ms:3600000}")
+    public void scheduledRun() {
+        archive();
+    }
+
+    /**
+     * Archives everything before the cutoff and returns the number of rows moved; returns 0 at
+     * once if a run is already in progress.
+     */
+    public long archive() {
+        if (!running.tryLock()) {
+            return 0;
+        }
+        try {
+            LocalDateTime cutoff = archiveCutoff();
+            long start = System.nanoTime();
+            long moved = 0;
+            int batchRows;
+            do {
+                batchRows = moveBatch(cutoff);
+                moved += batchRows;
+                if (batchRows == batchSize && pauseMillis > 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pauseMillis));
+                }
+            } while (batchRows == batchSize);
+            if (moved > 0) {
+                long elapsed = System.nanoTime() - start;
+                logger.info(String.format("Archived %d appointments before %s in %.1f ms (%.0f rows/s)",
+                        moved, cutoff, elapsed / 1e6, moved / (Math.max(elapsed, 1) / 1e9)));
+            }
+            return moved;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /**
+     * Runs the task while no archive run is in progress on this instance, waiting for a running
+     * one to finish. Lets a full scan of both tables see each row exactly once.
+     */
+    public <T> T whilePaused(Supplier<T> task) {
+        running.lock();
+        try {
+            return task.get();
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private int moveBatch(LocalDateTime cutoff) {
+        Timer.Sample sample = Timer.start();
+        List<BookedSlot> batch = transaction.execute(status -> {
+            List<BookedSlot> slots = appointmentRepository.findArchivableBefore(cutoff, PageRequest.of(0, batchSize));
+            if (slots.isEmpty()) {
+                return slots;
+            }
+            List<Long> ids = slots.stream().map(BookedSlot::getId).toList();
+            int copied = archivedAppointmentRepository.copyFromHot(ids, LocalDateTime.now());
+            int deleted = appointmentRepository.deleteByIds(ids);
+            if (copied != ids.size() || deleted != ids.size()) {
+                throw new RuntimeException("Archive batch changed underneath: selected " + ids.size()
+                        + ", copied " + copied + ", deleted " + deleted);
+            }
+            return slots;
+        });
+        sample.stop(batchTimer);
+        // The index mirrors the hot table, as it would after a restart.
+        for (BookedSlot slot : batch) {
+            slotOccupancyIndex.release(slot.getDoctorId(), slot.getAppointmentTime());
+        }
+        rowsMoved.increment(batch.size());
+        return batch.size();
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * In-process fan-out of appointment changes to server-sent event subscribers. Each change goes to
+ * the doctor's and the patient's topic; every subscriber has a bounded queue drained by a small
+ * dispatch pool, so a slow client is disconnected rather than slowing down bookings. Recent events
+ * are kept in a ring so a reconnecting client resumes from its Last-Event-ID; a client that has
+ * fallen further behind gets a {@code reset} event and should reload with GET /api/appointments.
+ * Idle subscribers hold no thread, only their emitter and an empty queue.
+ */
+@Component
+public class AppointmentChangeFeed {
+    private static final Logger logger = Logger.getLogger(AppointmentChangeFeed.class.getName());
+    private static final AtomicInteger DISPATCH_THREADS = new AtomicInteger();
+    private static final Event HEARTBEAT = new Event(0, null, null, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Event[] ring;
+    // Event ids are "<boot>-<seq>", so an id handed out before a restart is never mistaken for a current one.
+    private final String boot = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Set<Subscriber>> subscribersByTopic = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Not a monitor: publishers may run on virtual threads. Held only for non-blocking queue offers.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ExecutorService dispatcher;
+    private final Counter published;
+    private final Counter overflowed;
+    private final Counter replayed;
+    private final Counter reset;
+    private long sequence;
+
+    public AppointmentChangeFeed(ObjectMapper objectMapper,
+                                 @Value("${appointment.feed.replay-size:10000}") int replaySize,
+                                 @Value("${appointment.feed.buffer-size:256}") int bufferSize,
+                                 @Value("${appointment.feed.dispatch-threads:2}") int dispatchThreads,
+                                 MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.ring = new Event[replaySize];
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "appointment-feed-" + DISPATCH_THREADS.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.published = Counter.builder("appointment.feed.events").register(meterRegistry);
+        this.overflowed = Counter.builder("appointment.feed.disconnected").tag("reason", "overflow").register(meterRegistry);
+        this.replayed = Counter.builder("appointment.feed.resumed").tag("result", "replayed").register(meterRegistry);
+        this.reset = Counter.builder("appointment.feed.resumed").tag("result", "reset").register(meterRegistry);
+        Gauge.builder("appointment.feed.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public static String doctorTopic(long doctorId) {
+        return "doctor:" + doctorId;
+    }
+
+    public static String patientTopic(long userId) {
+        return "patient:" + userId;
+    }
+
+    public SseEmitter subscribe(String topic, String lastEventId, long timeoutMillis) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(emitter, topic, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Sends one committed change to the doctor's and the patient's subscribers. The payload is
+     * serialized once and shared by every subscriber.
+     */
+    public void publish(String type, AppointmentView appointment) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(appointment);
+        } catch (JsonProcessingException e) {
+            // The change is already committed; subscribers pick it up on their next reload.
+            logger.warning("Could not publish appointment " + appointment.getId() + ": " + e.getMessage());
+            return;
+        }
+        String doctorTopic = doctorTopic(appointment.getDoctorId());
+        String patientTopic = patientTopic(appointment.getPatientId());
+        lock.lock();
+        try {
+            Event event = new Event(++sequence, type, data, doctorTopic, patientTopic);
+            ring[(int) (event.seq % ring.length)] = event;
+            offer(subscribersByTopic.get(doctorTopic), event);
+            offer(subscribersByTopic.get(patientTopic), event);
+        } finally {
+            lock.unlock();
+        }
+        published.increment();
+    }
+
+    // Keeps proxies and load balancers from closing idle streams, and finds clients that went away.
+    @Scheduled(initialDelayString = "${appointment.feed.heartbeat-ms:25000}", fixedDelayString = "${appointment.feed.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Subscriber> subscribers : subscribersByTopic.values()) {
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.pending.isEmpty()) {
+                    subscriber.enqueue(HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // Runs on context close, before the web server stops, so open streams don't hold up shutdown.
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        for (Set<Subscriber> subscribers : subscribersByTopic.values()) {
+            subscribers.forEach(subscriber -> {
+                subscriber.closed = true;
+                subscriber.emitter.complete();
+            });
+        }
+        dispatcher.shutdownNow();
+    }
+
+    void register(SseEmitter emitter, String topic, String lastEventId) {
+        Subscriber subscriber = new Subscriber(topic, emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        lock.lock();
+        try {
+            // Replay and registration happen under the publish lock, so nothing published in
+            // between is lost or delivered twice.
+            if (lastEventId != null && !lastEventId.isEmpty()) {
+                replay(subscriber, lastEventId);
+            } else {
+                // Hands the client the current position, so even a reconnect before the first
+                // change resumes without a gap.
+                subscriber.push(marker("ready"));
+            }
+            subscribersByTopic.computeIfAbsent(topic, t -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            subscriberCount.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        if (!subscriber.pending.isEmpty()) {
+            subscriber.schedule();
+        }
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long after = parseSequence(lastEventId);
+        long oldest = Math.max(1, sequence - ring.length + 1);
+        if (after < 0 || after > sequence || after + 1 < oldest) {
+            subscriber.push(marker("reset"));
+            reset.increment();
+            return;
+        }
+        List<Event> missed = new ArrayList<>();
+        for (long seq = after + 1; seq <= sequence; seq++) {
+            Event event = ring[(int) (seq % ring.length)];
+            if (event.isFor(subscriber.topic)) {
+                missed.add(event);
+            }
+        }
+        if (missed.size() > bufferSize) {
+            subscriber.push(marker("reset"));
+            reset.increment();
+            return;
+        }
+        missed.forEach(subscriber::push);
+        replayed.increment();
+    }
+
+    private long parseSequence(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(boot)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void offer(Set<Subscriber> subscribers, Event event) {
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.enqueue(event)) {
+                overflowed.increment();
+                subscriber.closed = true;
+                remove(subscriber);
+                // The client reconnects with its Last-Event-ID and catches up from the ring.
+                dispatcher.execute(subscriber.emitter::complete);
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        lock.lock();
+        try {
+            Set<Subscriber> subscribers = subscribersByTopic.get(subscriber.topic);
+            if (subscribers != null && subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+                if (subscribers.isEmpty()) {
+                    subscribersByTopic.remove(subscriber.topic);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // An event without a payload that only moves the client's Last-Event-ID to the current position.
+    private Event marker(String type) {
+        return new Event(sequence, type, "{}", null, null);
+    }
+
+    private String eventId(long seq) {
+        return boot + "-" + seq;
+    }
+
+    private static final class Event {
+        final long seq;
+        final String type;
+        final String data;
+        final String doctorTopic;
+        final String patientTopic;
+
+        Event(long seq, String type, String data, String doctorTopic, String patientTopic) {
+            this.seq = seq;
+            this.type = type;
+            this.data = data;
+            this.doctorTopic = doctorTopic;
+            this.patientTopic = patientTopic;
+        }
+
+        boolean isFor(String topic) {
+            return topic.equals(doctorTopic) || topic.equals(patientTopic);
+        }
+    }
+
+    private final class Subscriber {
+        final String topic;
+        final SseEmitter emitter;
+        // Unbounded queue with a separate count, so an idle subscriber allocates no buffer.
+        final Queue<Event> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        // Used before the subscriber is visible to publishers; scheduling is left to the caller.
+        void push(Event event) {
+            pending.add(event);
+            size.incrementAndGet();
+        }
+
+        boolean enqueue(Event event) {
+            if (closed) {
+                return true;
+            }
+            if (size.incrementAndGet() > bufferSize) {
+                size.decrementAndGet();
+                return false;
+            }
+            pending.add(event);
+            schedule();
+            return true;
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                Event event;
+                while (!closed && (event = pending.poll()) != null) {
+                    size.decrementAndGet();
+                    if (event == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        emitter.send(SseEmitter.event().id(eventId(event.seq)).name(event.type)
+                                .data(event.data, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the emitter's completion callback unregisters it.
+                closed = true;
+                remove(this);
+                logger.fine(() -> "Dropping feed subscriber on " + topic + ": " + e.getMessage());
+                emitter.completeWithError(e);
+            } finally {
+                scheduled.set(false);
+            }
+            if (!closed && !pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
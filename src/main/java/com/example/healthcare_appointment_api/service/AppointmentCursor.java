@@ -0,0 +1,33 @@
+package com.example.healthcare_appointment_api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the (appointmentTime, id) of the last row a client has seen.
+ */
+final class AppointmentCursor {
+    final LocalDateTime appointmentTime;
+    final long id;
+
+    AppointmentCursor(LocalDateTime appointmentTime, long id) {
+        this.appointmentTime = appointmentTime;
+        this.id = id;
+    }
+
+    String encode() {
+        String raw = appointmentTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static AppointmentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new AppointmentCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
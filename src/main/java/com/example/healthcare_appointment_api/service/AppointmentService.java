@@ -1,25 +1,93 @@
 package com.example.healthcare_appointment_api.service;
 
+import com.example.healthcare_appointment_api.dto.AppointmentPage;
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.dto.BookedSlot;
+import com.example.healthcare_appointment_api.dto.StatusChangeResult;
 import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.AppointmentStatus;
 import com.example.healthcare_appointment_api.model.Doctor;
 import com.example.healthcare_appointment_api.model.User;
 import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.ArchivedAppointmentRepository;
 import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
 
 @Service
 public class AppointmentService {
+    private static final Logger logger = Logger.getLogger(AppointmentService.class.getName());
+    private static final int SLOT_LOAD_BATCH_SIZE = 10_000;
+    private static final int MAX_STATUS_CHANGES = 1_000;
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59);
+    private static final Comparator<AppointmentView> PAGE_ORDER =
+            Comparator.comparing(AppointmentView::getAppointmentTime).thenComparing(AppointmentView::getId);
+
     @Autowired
     private AppointmentRepository appointmentRepository;
     @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    @Autowired
+    private AppointmentArchiver appointmentArchiver;
+    @Autowired
     private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+    @Autowired
+    private AppointmentChangeFeed appointmentChangeFeed;
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+    @Autowired
+    private AppointmentAnalytics appointmentAnalytics;
+    @Value("${appointment.feed.max-connection-ms:3600000}")
+    private long feedMaxConnectionMillis = 3_600_000;
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    @PostConstruct
+    void loadSlotOccupancy() {
+        long start = System.nanoTime();
+        long afterId = 0;
+        List<BookedSlot> batch;
+        do {
+            batch = appointmentRepository.findBookedSlotsAfter(afterId, PageRequest.of(0, SLOT_LOAD_BATCH_SIZE));
+            for (BookedSlot slot : batch) {
+                slotOccupancyIndex.tryReserve(slot.getDoctorId(), slot.getAppointmentTime());
+                afterId = slot.getId();
+            }
+        } while (batch.size() == SLOT_LOAD_BATCH_SIZE);
+        logger.info("Loaded " + slotOccupancyIndex.size() + " booked slots in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
 
-    public Appointment bookAppointment(Appointment appointment) {
+    public AppointmentView bookAppointment(Appointment appointment) {
         if (appointment.getDoctor() == null || appointment.getDoctor().getId() == null) {
             throw new RuntimeException("Doctor ID is required");
         }
@@ -29,27 +97,226 @@ public class AppointmentService {
         if (appointmentTime == null) {
             throw new RuntimeException("Appointment time is required");
         }
-        if (appointmentRepository.existsByDoctorAndAppointmentTime(doctor, appointmentTime)) {
+        Timer.Sample check = Timer.start();
+        boolean reserved = slotOccupancyIndex.tryReserve(doctor.getId(), appointmentTime);
+        check.stop(meterRegistry.timer("appointment.booking", "phase", "conflict_check",
+                "outcome", reserved ? "free" : "conflict"));
+        if (!reserved) {
             throw new RuntimeException("Doctor is not available at this time");
         }
-        appointment.setDoctor(doctor); // Ensure full Doctor entity is set
-        appointment.setPatient(getCurrentUser());
-        appointment.setStatus("PENDING");
-        return appointmentRepository.save(appointment);
+        Timer.Sample insert = Timer.start();
+        Appointment saved;
+        try {
+            appointment.setDoctor(doctor); // Ensure full Doctor entity is set
+            appointment.setPatient(getCurrentUser());
+            appointment.setStatus(AppointmentStatus.PENDING.name());
+            saved = appointmentRepository.save(appointment);
+            insert.stop(meterRegistry.timer("appointment.booking", "phase", "insert", "outcome", "booked"));
+        } catch (RuntimeException e) {
+            slotOccupancyIndex.release(doctor.getId(), appointmentTime);
+            insert.stop(meterRegistry.timer("appointment.booking", "phase", "insert", "outcome", "error"));
+            throw e;
+        }
+        AppointmentView view = toView(saved);
+        appointmentAnalytics.booked(saved.getId(), doctor.getId(), appointmentTime);
+        appointmentChangeFeed.publish("booked", view);
+        reminderScheduler.schedule(view);
+        return view;
     }
 
-    public List<Appointment> getAppointments() {
-        User user = getCurrentUser();
-        if (user.getRoles().contains("ROLE_DOCTOR")) {
-            Doctor doctor = doctorRepository.findByUser(user)
+    /**
+     * Moves up to MAX_STATUS_CHANGES appointments to the target status in one transaction. Doctors
+     * may change their own appointments, patients may only cancel theirs. Ownership and legal
+     * transitions are checked in memory against a single read of the rows; the rows that pass are
+     * then updated with one statement per current status. Each update is guarded by that status,
+     * so if another request changed a row in between, the whole change rolls back. Ids the caller
+     * cannot see are rejected as not found; ids already in the target status count as applied.
+     */
+    @Transactional
+    public StatusChangeResult changeStatus(List<Long> ids, String status) {
+        AppointmentStatus target = AppointmentStatus.parse(status);
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("At least one appointment id is required");
+        }
+        if (ids.size() > MAX_STATUS_CHANGES) {
+            throw new RuntimeException("At most " + MAX_STATUS_CHANGES + " appointments can change at once");
+        }
+        Timer.Sample sample = Timer.start();
+        JwtPrincipal principal = getCurrentPrincipal();
+        boolean asDoctor = "DOCTOR".equals(principal.getRole());
+        if (!asDoctor && target != AppointmentStatus.CANCELLED) {
+            throw new RuntimeException("Patients can only cancel appointments");
+        }
+        Long ownerId = asDoctor
+                ? doctorRepository.findIdByUserId(principal.getUserId())
+                        .orElseThrow(() -> new RuntimeException("Doctor profile not found"))
+                : principal.getUserId();
+
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, AppointmentView> rows = new HashMap<>();
+        for (AppointmentView row : appointmentRepository.findViewsByIds(requested)) {
+            rows.put(row.getId(), row);
+        }
+        List<Long> applied = new ArrayList<>();
+        List<StatusChangeResult.Rejection> rejected = new ArrayList<>();
+        Map<String, List<Long>> idsByCurrent = new LinkedHashMap<>();
+        List<AppointmentView> changed = new ArrayList<>();
+        List<AppointmentStatus> previous = new ArrayList<>();
+        for (Long id : requested) {
+            AppointmentView row = rows.get(id);
+            if (row == null || !ownerId.equals(asDoctor ? row.getDoctorId() : row.getPatientId())) {
+                rejected.add(new StatusChangeResult.Rejection(id, "not found"));
+                continue;
+            }
+            AppointmentStatus current = AppointmentStatus.parse(row.getStatus());
+            if (current == target) {
+                applied.add(id);
+            } else if (current.canBecome(target)) {
+                idsByCurrent.computeIfAbsent(row.getStatus(), key -> new ArrayList<>()).add(id);
+                applied.add(id);
+                changed.add(withStatus(row, target));
+                previous.add(current);
+            } else {
+                rejected.add(new StatusChangeResult.Rejection(id, "cannot change from " + current + " to " + target));
+            }
+        }
+        for (Map.Entry<String, List<Long>> group : idsByCurrent.entrySet()) {
+            int updated = appointmentRepository.updateStatus(group.getValue(), group.getKey(), target.name());
+            if (updated != group.getValue().size()) {
+                throw new RuntimeException("Appointments changed while updating; reload and try again");
+            }
+        }
+        if (!changed.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    statusChanged(changed, previous, target);
+                }
+            });
+        }
+        sample.stop(meterRegistry.timer("appointment.status.change", "to", target.name()));
+        return new StatusChangeResult(target.name(), applied, rejected);
+    }
+
+    // Runs once the change is committed: a cancelled slot can be booked again and is not reminded.
+    private void statusChanged(List<AppointmentView> changed, List<AppointmentStatus> previous, AppointmentStatus target) {
+        for (int i = 0; i < changed.size(); i++) {
+            AppointmentView appointment = changed.get(i);
+            appointmentAnalytics.statusChanged(appointment.getId(), appointment.getDoctorId(),
+                    appointment.getAppointmentTime(), previous.get(i), target);
+            if (target == AppointmentStatus.CANCELLED) {
+                slotOccupancyIndex.release(appointment.getDoctorId(), appointment.getAppointmentTime());
+                reminderScheduler.cancel(appointment.getId());
+            }
+            appointmentChangeFeed.publish("status", appointment);
+        }
+    }
+
+    /**
+     * Opens a change stream for the caller: a doctor follows their own schedule, a patient their
+     * own bookings. The stream ends when the access token expires, so the client reconnects with
+     * a fresh token and its Last-Event-ID.
+     */
+    public SseEmitter subscribeToChanges(String lastEventId) {
+        JwtPrincipal principal = getCurrentPrincipal();
+        String topic;
+        if ("DOCTOR".equals(principal.getRole())) {
+            Long doctorId = doctorRepository.findIdByUserId(principal.getUserId())
                     .orElseThrow(() -> new RuntimeException("Doctor profile not found"));
-            return appointmentRepository.findByDoctor(doctor);
+            topic = AppointmentChangeFeed.doctorTopic(doctorId);
         } else {
-            return appointmentRepository.findByPatient(user);
+            topic = AppointmentChangeFeed.patientTopic(principal.getUserId());
+        }
+        long untilExpiry = principal.getExpiresAtMillis() - System.currentTimeMillis();
+        return appointmentChangeFeed.subscribe(topic, lastEventId,
+                Math.max(1, Math.min(untilExpiry, feedMaxConnectionMillis)));
+    }
+
+    @Transactional(readOnly = true)
+    public AppointmentPage getAppointments(LocalDateTime from, LocalDateTime to, String status, String cursor, int limit) {
+        Timer.Sample sample = Timer.start();
+        JwtPrincipal principal = getCurrentPrincipal();
+        AppointmentCursor after = cursor != null && !cursor.isEmpty()
+                ? AppointmentCursor.decode(cursor)
+                : new AppointmentCursor(from != null ? from : EARLIEST, 0L);
+        // Only history requests reach back past the archive cutoff; the rest never touch the archive.
+        boolean withArchive = after.appointmentTime.isBefore(appointmentArchiver.archiveCutoff());
+        try {
+            return findPage(principal, after, to, status, limit, withArchive);
+        } finally {
+            sample.stop(meterRegistry.timer("appointment.list", "role", String.valueOf(principal.getRole()),
+                    "archive", withArchive ? "merged" : "skipped"));
+        }
+    }
+
+    private AppointmentPage findPage(JwtPrincipal principal, AppointmentCursor after, LocalDateTime to,
+                                     String status, int limit, boolean withArchive) {
+        LocalDateTime until = to != null ? to : LATEST;
+        String statusFilter = status != null && !status.isEmpty() ? status.toUpperCase() : null;
+        PageRequest page = PageRequest.of(0, limit + 1);
+
+        List<AppointmentView> rows;
+        if ("DOCTOR".equals(principal.getRole())) {
+            Long doctorId = doctorRepository.findIdByUserId(principal.getUserId())
+                    .orElseThrow(() -> new RuntimeException("Doctor profile not found"));
+            rows = appointmentRepository.findDoctorPage(doctorId, after.appointmentTime, after.id, until, statusFilter, page);
+            if (withArchive) {
+                rows = merge(archivedAppointmentRepository.findDoctorPage(
+                        doctorId, after.appointmentTime, after.id, until, statusFilter, page), rows, limit + 1);
+            }
+        } else {
+            rows = appointmentRepository.findPatientPage(principal.getUserId(), after.appointmentTime, after.id, until, statusFilter, page);
+            if (withArchive) {
+                rows = merge(archivedAppointmentRepository.findPatientPage(
+                        principal.getUserId(), after.appointmentTime, after.id, until, statusFilter, page), rows, limit + 1);
+            }
+        }
+
+        if (rows.size() <= limit) {
+            return new AppointmentPage(rows, null);
+        }
+        List<AppointmentView> items = rows.subList(0, limit);
+        AppointmentView last = items.get(limit - 1);
+        return new AppointmentPage(items, new AppointmentCursor(last.getAppointmentTime(), last.getId()).encode());
+    }
+
+    // Both inputs are in page order; ids are unique across the two tables.
+    private static List<AppointmentView> merge(List<AppointmentView> archived, List<AppointmentView> hot, int max) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<AppointmentView> merged = new ArrayList<>(Math.min(max, archived.size() + hot.size()));
+        int a = 0;
+        int h = 0;
+        while (merged.size() < max && (a < archived.size() || h < hot.size())) {
+            if (h == hot.size() || (a < archived.size() && PAGE_ORDER.compare(archived.get(a), hot.get(h)) < 0)) {
+                merged.add(archived.get(a++));
+            } else {
+                merged.add(hot.get(h++));
+            }
         }
+        return merged;
+    }
+
+    private static AppointmentView toView(Appointment appointment) {
+        Doctor doctor = appointment.getDoctor();
+        User patient = appointment.getPatient();
+        return new AppointmentView(appointment.getId(), appointment.getAppointmentTime(), appointment.getStatus(),
+                doctor.getId(), doctor.getName(), doctor.getSpecialty(), patient.getId(), patient.getUsername());
+    }
+
+    private static AppointmentView withStatus(AppointmentView view, AppointmentStatus status) {
+        return new AppointmentView(view.getId(), view.getAppointmentTime(), status.name(), view.getDoctorId(),
+                view.getDoctorName(), view.getSpecialty(), view.getPatientId(), view.getPatientUsername());
+    }
+
+    private JwtPrincipal getCurrentPrincipal() {
+        return (JwtPrincipal) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
     }
 
     private User getCurrentUser() {
-        return (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Long userId = getCurrentPrincipal().getUserId();
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
     }
 }
\ No newline at end of file
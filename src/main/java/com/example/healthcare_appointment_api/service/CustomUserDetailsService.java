@@ -2,29 +2,57 @@ package com.example.healthcare_appointment_api.service;
 
 import com.example.healthcare_appointment_api.model.User;
 import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.TokenRevocationList;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    private static final Logger logger = Logger.getLogger(CustomUserDetailsService.class.getName());
+
     private final UserRepository userRepository;
+    private final TokenRevocationList tokenRevocationList;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, TokenRevocationList tokenRevocationList) {
         this.userRepository = userRepository;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByUsernameOnPrimary(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return toUserDetails(user);
+    }
+
+    // Called by the authentication provider after a successful login whose stored hash was
+    // produced with a lower BCrypt cost than password.bcrypt.strength.
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsernameOnPrimary(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        logger.info("Rehashed password for user: " + user.getUsername());
+        return toUserDetails(user);
+    }
+
+    // The user may come from the entity cache, which can trail a disable made on another instance.
+    private UserDetails toUserDetails(User user) {
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPassword(),
+                !user.isDisabled() && !tokenRevocationList.isDisabled(user.getUsername()),
+                true,
+                true,
+                true,
                 user.getRoles().stream()
                         .map(SimpleGrantedAuthority::new)
                         .collect(Collectors.toList())
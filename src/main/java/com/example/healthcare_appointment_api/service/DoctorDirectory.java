@@ -0,0 +1,195 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.DoctorView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable, pre-encoded copy of the doctor list. Readers take the current {@link Snapshot}
+ * without locking; writers build a new one and swap it in. A full reload passes the version it
+ * started reading at, so upserts that landed while it read are kept rather than overwritten.
+ */
+@Component
+public class DoctorDirectory {
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private long version;
+    // Doctor id to the version its upsert produced, for upserts no reload has read past yet.
+    private final Map<Long, Long> upsertedAt = new HashMap<>();
+    private long loadedFrom = -1;
+
+    public DoctorDirectory(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        current.set(build(new LinkedHashMap<>(), Map.of()));
+    }
+
+    public Snapshot current() {
+        return current.get();
+    }
+
+    // readVersion is current().getVersion() taken before the doctors were read.
+    public synchronized boolean replaceAll(List<DoctorView> doctors, long readVersion) {
+        if (readVersion < loadedFrom) {
+            return false;
+        }
+        loadedFrom = readVersion;
+        Snapshot snapshot = current.get();
+        Map<Long, DoctorView> views = new LinkedHashMap<>();
+        for (DoctorView doctor : doctors) {
+            views.put(doctor.getId(), doctor);
+        }
+        for (Map.Entry<Long, Long> upsert : upsertedAt.entrySet()) {
+            DoctorView newer = snapshot.views.get(upsert.getKey());
+            if (upsert.getValue() > readVersion && newer != null) {
+                views.put(upsert.getKey(), newer);
+            }
+        }
+        upsertedAt.values().removeIf(upsertVersion -> upsertVersion <= readVersion);
+        if (views.equals(snapshot.views)) {
+            return false;
+        }
+        current.set(build(views, snapshot.entries));
+        return true;
+    }
+
+    public synchronized void upsert(DoctorView doctor) {
+        Snapshot snapshot = current.get();
+        if (doctor.equals(snapshot.views.get(doctor.getId()))) {
+            return;
+        }
+        Map<Long, DoctorView> views = new LinkedHashMap<>(snapshot.views);
+        views.put(doctor.getId(), doctor);
+        current.set(build(views, snapshot.entries));
+        upsertedAt.put(doctor.getId(), version);
+    }
+
+    static String specialtyKey(String specialty) {
+        return specialty == null ? "" : specialty.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Snapshot build(Map<Long, DoctorView> views, Map<Long, Entry> previous) {
+        version++;
+        String etag = etag(version);
+        Map<Long, Entry> entries = new HashMap<>(views.size() * 2);
+        Map<String, List<DoctorView>> bySpecialty = new HashMap<>();
+        for (DoctorView view : views.values()) {
+            Entry old = previous.get(view.getId());
+            entries.put(view.getId(), old != null && old.view.equals(view) ? old : new Entry(view, encode(view), etag));
+            bySpecialty.computeIfAbsent(specialtyKey(view.getSpecialty()), k -> new ArrayList<>()).add(view);
+        }
+        Map<String, byte[]> specialtyJson = new HashMap<>(bySpecialty.size() * 2);
+        for (Map.Entry<String, List<DoctorView>> partition : bySpecialty.entrySet()) {
+            partition.setValue(Collections.unmodifiableList(partition.getValue()));
+            specialtyJson.put(partition.getKey(), encode(partition.getValue()));
+        }
+        List<DoctorView> all = Collections.unmodifiableList(new ArrayList<>(views.values()));
+        return new Snapshot(version, etag, Collections.unmodifiableMap(views), entries, all,
+                bySpecialty, specialtyJson, encode(all));
+    }
+
+    private String etag(long version) {
+        return "\"" + epoch + "-" + version + "\"";
+    }
+
+    private byte[] encode(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode doctor directory", e);
+        }
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        private final String etag;
+        private final Map<Long, DoctorView> views;
+        private final Map<Long, Entry> entries;
+        private final List<DoctorView> all;
+        private final Map<String, List<DoctorView>> bySpecialty;
+        private final Map<String, byte[]> specialtyJson;
+        private final byte[] allJson;
+
+        private Snapshot(long version, String etag, Map<Long, DoctorView> views, Map<Long, Entry> entries,
+                         List<DoctorView> all, Map<String, List<DoctorView>> bySpecialty,
+                         Map<String, byte[]> specialtyJson, byte[] allJson) {
+            this.version = version;
+            this.etag = etag;
+            this.views = views;
+            this.entries = entries;
+            this.all = all;
+            this.bySpecialty = bySpecialty;
+            this.specialtyJson = specialtyJson;
+            this.allJson = allJson;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public byte[] getAllJson() {
+            return allJson;
+        }
+
+        public List<DoctorView> getAllDoctors() {
+            return all;
+        }
+
+        public byte[] getSpecialtyJson(String specialty) {
+            return specialtyJson.getOrDefault(specialtyKey(specialty), EMPTY_LIST);
+        }
+
+        public List<DoctorView> getDoctorsBySpecialty(String specialty) {
+            return bySpecialty.getOrDefault(specialtyKey(specialty), List.of());
+        }
+
+        public Entry getDoctor(Long id) {
+            return entries.get(id);
+        }
+
+        public int size() {
+            return views.size();
+        }
+    }
+
+    public static final class Entry {
+        private final DoctorView view;
+        private final byte[] json;
+        private final String etag;
+
+        private Entry(DoctorView view, byte[] json, String etag) {
+            this.view = view;
+            this.json = json;
+            this.etag = etag;
+        }
+
+        public DoctorView getView() {
+            return view;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.DoctorView;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Case- and accent-insensitive prefix index over doctor names and specialties. Each query term
+ * must prefix-match some token of a doctor; results are ranked by how well the terms matched.
+ * A published index is never modified: rebuilds and upserts build a new one and swap it in.
+ */
+@Component
+public class DoctorSearchIndex {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Set<String> STOP_WORDS = Set.of("dr");
+    private static final int MAX_CANDIDATES = 1_000;
+
+    private volatile Index index = new Index();
+
+    public synchronized void rebuild(List<DoctorView> doctors) {
+        Index rebuilt = new Index();
+        for (DoctorView doctor : doctors) {
+            rebuilt.add(doctor);
+        }
+        index = rebuilt;
+    }
+
+    public synchronized void upsert(DoctorView doctor) {
+        Index updated = index.copy();
+        updated.remove(doctor.getId());
+        updated.add(doctor);
+        index = updated;
+    }
+
+    public List<DoctorView> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Index current = index;
+        // every match carries the driver term, so its postings hold the whole result
+        String driver = mostSelective(current, terms);
+
+        PriorityQueue<Scored> top = new PriorityQueue<>(limit + 1, Scored.WORST_FIRST);
+        Set<Long> seen = new HashSet<>();
+        int matched = 0;
+        for (Set<Long> ids : current.prefixRange(driver).values()) {
+            for (Long id : ids) {
+                if (!seen.add(id)) {
+                    continue;
+                }
+                Entry entry = current.entries.get(id);
+                if (entry == null) {
+                    continue;
+                }
+                double score = entry.score(terms);
+                if (score <= 0) {
+                    continue;
+                }
+                if (++matched > MAX_CANDIDATES) {
+                    return drain(top);
+                }
+                top.add(new Scored(entry, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        return drain(top);
+    }
+
+    public int size() {
+        return index.entries.size();
+    }
+
+    // The term with the fewest postings; counting a term stops once it is known to be no better.
+    private static String mostSelective(Index index, List<String> terms) {
+        if (terms.size() == 1) {
+            return terms.get(0);
+        }
+        List<String> byLength = new ArrayList<>(terms);
+        byLength.sort(Comparator.comparingInt(String::length).reversed());
+        String best = null;
+        long bestCount = Long.MAX_VALUE;
+        for (String term : byLength) {
+            long count = 0;
+            for (Set<Long> ids : index.prefixRange(term).values()) {
+                count += ids.size();
+                if (count >= bestCount) {
+                    break;
+                }
+            }
+            if (count < bestCount) {
+                best = term;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>(4);
+        for (String token : NON_ALNUM.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<DoctorView> drain(PriorityQueue<Scored> top) {
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(Scored.WORST_FIRST.reversed());
+        List<DoctorView> result = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            result.add(scored.entry.doctor);
+        }
+        return result;
+    }
+
+    private static final class Index {
+        private final NavigableMap<String, Set<Long>> tokens;
+        private final Map<Long, Entry> entries;
+        // Set on copies: posting sets are shared with the published index until first written.
+        private final Set<String> shared;
+
+        Index() {
+            this(new TreeMap<>(), new HashMap<>(), null);
+        }
+
+        private Index(NavigableMap<String, Set<Long>> tokens, Map<Long, Entry> entries, Set<String> shared) {
+            this.tokens = tokens;
+            this.entries = entries;
+            this.shared = shared;
+        }
+
+        Index copy() {
+            return new Index(new TreeMap<>(tokens), new HashMap<>(entries), new HashSet<>(tokens.keySet()));
+        }
+
+        void add(DoctorView doctor) {
+            Entry entry = new Entry(doctor);
+            entries.put(doctor.getId(), entry);
+            for (String token : entry.allTokens()) {
+                postings(token).add(doctor.getId());
+            }
+        }
+
+        void remove(Long id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) {
+                return;
+            }
+            for (String token : entry.allTokens()) {
+                Set<Long> ids = postings(token);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    tokens.remove(token);
+                }
+            }
+        }
+
+        NavigableMap<String, Set<Long>> prefixRange(String prefix) {
+            return tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+
+        private Set<Long> postings(String token) {
+            Set<Long> ids = tokens.get(token);
+            if (ids == null) {
+                ids = new HashSet<>();
+                tokens.put(token, ids);
+            } else if (shared != null && shared.remove(token)) {
+                ids = new HashSet<>(ids);
+                tokens.put(token, ids);
+            }
+            return ids;
+        }
+    }
+
+    private static final class Entry {
+        private final DoctorView doctor;
+        private final List<String> nameTokens;
+        private final List<String> specialtyTokens;
+
+        Entry(DoctorView doctor) {
+            this.doctor = doctor;
+            this.nameTokens = tokenize(doctor.getName());
+            this.specialtyTokens = tokenize(doctor.getSpecialty());
+        }
+
+        Set<String> allTokens() {
+            Set<String> unique = new LinkedHashSet<>(nameTokens);
+            unique.addAll(specialtyTokens);
+            return unique;
+        }
+
+        // 0 if any term fails to match; otherwise name hits outrank specialty hits, exact outranks prefix
+        double score(List<String> terms) {
+            double total = 0;
+            for (String term : terms) {
+                double best = Math.max(match(nameTokens, term, 4, 3), match(specialtyTokens, term, 2, 1));
+                if (best == 0) {
+                    return 0;
+                }
+                total += best;
+            }
+            return total;
+        }
+
+        private static double match(List<String> tokens, String term, double exact, double prefix) {
+            double best = 0;
+            for (String token : tokens) {
+                if (token.equals(term)) {
+                    return exact;
+                }
+                if (token.startsWith(term)) {
+                    best = prefix;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static final class Scored {
+        static final Comparator<Scored> WORST_FIRST = Comparator
+                .comparingDouble((Scored s) -> s.score)
+                .thenComparingInt((Scored s) -> -nameLength(s.entry.doctor))
+                .thenComparingLong((Scored s) -> -s.entry.doctor.getId());
+
+        private final Entry entry;
+        private final double score;
+
+        Scored(Entry entry, double score) {
+            this.entry = entry;
+            this.score = score;
+        }
+
+        private static int nameLength(DoctorView doctor) {
+            return doctor.getName() == null ? Integer.MAX_VALUE : doctor.getName().length();
+        }
+    }
+}
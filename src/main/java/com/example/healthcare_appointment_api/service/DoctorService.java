@@ -1,13 +1,22 @@
 package com.example.healthcare_appointment_api.service;
 
+import com.example.healthcare_appointment_api.dto.AvailableSlot;
+import com.example.healthcare_appointment_api.dto.DoctorView;
 import com.example.healthcare_appointment_api.model.Doctor;
 import com.example.healthcare_appointment_api.model.User;
 import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.PriorityQueue;
 
 @Service
 public class DoctorService {
@@ -18,25 +27,99 @@ public class DoctorService {
     @Autowired
     private UserService userService;
 
-    public Doctor createDoctorProfile(Doctor doctor) {
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    @Autowired
+    private DoctorDirectory doctorDirectory;
+
+    @Autowired
+    private DoctorSearchIndex doctorSearchIndex;
+
+    @Value("${appointment.slot-minutes:30}")
+    private long slotMinutes;
+
+    // The directory lock also covers the search index, so a reload cannot rebuild it from a list
+    // that misses an upsert the directory kept.
+    @PostConstruct
+    void loadDirectory() {
+        long readVersion = doctorDirectory.current().getVersion();
+        List<DoctorView> doctors = doctorRepository.findAllViews();
+        synchronized (doctorDirectory) {
+            if (doctorDirectory.replaceAll(doctors, readVersion)) {
+                doctorSearchIndex.rebuild(doctorDirectory.current().getAllDoctors());
+            }
+        }
+    }
+
+    // Picks up doctor changes made through other instances; a no-op when nothing changed.
+    @Scheduled(initialDelayString = "${doctor.directory.refresh-ms:60000}", fixedDelayString = "${doctor.directory.refresh-ms:60000}")
+    public void refreshDirectory() {
+        loadDirectory();
+    }
+
+    public DoctorView createDoctorProfile(Doctor doctor) {
         doctor.setUser(getCurrentUser());
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        return publish(toView(saved));
     }
 
+    @Transactional(readOnly = true)
     public List<Doctor> getAllDoctors() {
         return doctorRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Doctor> getDoctorsBySpecialty(String specialty) {
         return doctorRepository.findBySpecialty(specialty);
     }
 
+    @Transactional(readOnly = true)
     public Doctor getDoctorById(Long id) {
         return doctorRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Doctor not found"));
     }
 
-    public Doctor updateDoctorProfile(Long id, Doctor updatedDoctor) {
+    public List<DoctorView> searchDoctors(String query, int limit) {
+        return doctorSearchIndex.search(query, limit);
+    }
+
+    public List<AvailableSlot> findAvailableSlots(String specialty, LocalDateTime from, LocalDateTime to, int limit) {
+        if (!to.isAfter(from)) {
+            throw new RuntimeException("'to' must be after 'from'");
+        }
+        List<DoctorView> doctors = doctorDirectory.current().getDoctorsBySpecialty(specialty);
+        long slotSeconds = slotMinutes * 60;
+        long fromKey = SlotOccupancyIndex.toKey(from);
+        long toKey = SlotOccupancyIndex.toKey(to);
+
+        // k-way merge: one cursor per doctor, ordered by (next free slot, doctor id)
+        PriorityQueue<long[]> cursors = new PriorityQueue<>(Math.max(1, doctors.size()),
+                (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        for (int i = 0; i < doctors.size(); i++) {
+            long doctorId = doctors.get(i).getId();
+            long next = slotOccupancyIndex.nextFreeSlot(doctorId, fromKey, toKey, slotSeconds);
+            if (next >= 0) {
+                cursors.add(new long[]{next, doctorId, i});
+            }
+        }
+
+        List<AvailableSlot> result = new ArrayList<>(Math.min(limit, 64));
+        while (result.size() < limit && !cursors.isEmpty()) {
+            long[] cursor = cursors.poll();
+            DoctorView doctor = doctors.get((int) cursor[2]);
+            result.add(new AvailableSlot(doctor.getId(), doctor.getName(), doctor.getSpecialty(),
+                    SlotOccupancyIndex.fromKey(cursor[0])));
+            long next = slotOccupancyIndex.nextFreeSlot(cursor[1], cursor[0] + slotSeconds, toKey, slotSeconds);
+            if (next >= 0) {
+                cursor[0] = next;
+                cursors.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    public DoctorView updateDoctorProfile(Long id, Doctor updatedDoctor) {
         Doctor doctor = getDoctorById(id);
         if (!doctor.getUser().getUsername().equals(getCurrentUser().getUsername())) {
             throw new RuntimeException("Unauthorized");
@@ -44,7 +127,21 @@ public class DoctorService {
         doctor.setName(updatedDoctor.getName());
         doctor.setSpecialty(updatedDoctor.getSpecialty());
         doctor.setContact(updatedDoctor.getContact());
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        return publish(toView(saved));
+    }
+
+    private DoctorView publish(DoctorView view) {
+        synchronized (doctorDirectory) {
+            doctorDirectory.upsert(view);
+            doctorSearchIndex.upsert(view);
+        }
+        return view;
+    }
+
+    private static DoctorView toView(Doctor doctor) {
+        return new DoctorView(doctor.getId(), doctor.getName(), doctor.getSpecialty(), doctor.getContact(),
+                doctor.getUser() != null ? doctor.getUser().getId() : null);
     }
 
     private User getCurrentUser() {
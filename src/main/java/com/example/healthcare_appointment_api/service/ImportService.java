@@ -0,0 +1,385 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.ImportReport;
+import com.example.healthcare_appointment_api.model.AppointmentStatus;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Loads doctors and appointments from a CSV (with a header row) or newline-delimited JSON body.
+ * The body is read one row at a time and rows are written in batches of
+ * {@code appointment.import.batch-size}, each batch in its own transaction, so memory stays flat
+ * however large the file. Rows are checked in memory before they reach the database: doctor ids
+ * against the doctor table read once up front, patients with one query per batch, and slot
+ * conflicts (with existing bookings and within the file) through the SlotOccupancyIndex.
+ * Appointments are written as plain JDBC batches, which work with database-generated ids; with
+ * MySQL set {@code rewriteBatchedStatements=true} on the connection URL so each batch goes out
+ * as multi-row inserts. Imported appointments skip the change feed; reminders for them are picked
+ * up by the reminder scheduler's regular catch-up.
+ */
+@Service
+public class ImportService {
+    private static final Logger logger = Logger.getLogger(ImportService.class.getName());
+    private static final int MAX_LISTED_REJECTIONS = 1000;
+    private static final String INSERT_APPOINTMENT =
+            "INSERT INTO appointment (doctor_id, patient_id, appointment_time, status) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_DOCTOR =
+            "INSERT INTO doctor (name, specialty, contact, user_id) VALUES (?, ?, ?, ?)";
+
+    public enum Format { NDJSON, CSV }
+
+    private final DoctorRepository doctorRepository;
+    private final UserRepository userRepository;
+    private final DoctorService doctorService;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final AppointmentAnalytics appointmentAnalytics;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+
+    public ImportService(DoctorRepository doctorRepository,
+                         UserRepository userRepository,
+                         DoctorService doctorService,
+                         SlotOccupancyIndex slotOccupancyIndex,
+                         AppointmentAnalytics appointmentAnalytics,
+                         DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         EntityManagerFactory entityManagerFactory,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${appointment.import.batch-size:1000}") int batchSize) {
+        this.doctorRepository = doctorRepository;
+        this.userRepository = userRepository;
+        this.doctorService = doctorService;
+        this.slotOccupancyIndex = slotOccupancyIndex;
+        this.appointmentAnalytics = appointmentAnalytics;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.ndjsonReader = objectMapper.readerFor(JsonNode.class);
+        this.csvReader = new CsvMapper()
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+                .readerFor(JsonNode.class)
+                .with(CsvSchema.emptySchema().withHeader());
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Rows carry doctorId, patientId, appointmentTime (ISO local date-time) and optionally status,
+     * PENDING by default; other fields, such as those in an appointment export, are ignored.
+     */
+    public ImportReport importAppointments(InputStream in, Format format) {
+        Set<Long> doctorIds = new HashSet<>(doctorRepository.findAllIds());
+        Set<Long> patientIds = new HashSet<>();
+        return importRows("appointments", in, format, (row, node) -> {
+            AppointmentRow appointment = new AppointmentRow();
+            appointment.row = row;
+            appointment.doctorId = id(node, "doctorId");
+            if (!doctorIds.contains(appointment.doctorId)) {
+                throw new InvalidRow("unknown doctor " + appointment.doctorId);
+            }
+            appointment.patientId = id(node, "patientId");
+            appointment.time = time(node, "appointmentTime");
+            appointment.status = status(node);
+            return appointment;
+        }, (batch, tally) -> saveAppointments(batch, patientIds, tally));
+    }
+
+    /**
+     * Rows carry name, specialty, optionally contact, and optionally userId to link the profile
+     * to an existing user who has none yet.
+     */
+    public ImportReport importDoctors(InputStream in, Format format) {
+        Set<Long> linkedUserIds = new HashSet<>(doctorRepository.findLinkedUserIds());
+        ImportReport report = importRows("doctors", in, format, (row, node) -> {
+            DoctorRow doctor = new DoctorRow();
+            doctor.row = row;
+            doctor.name = required(node, "name");
+            doctor.specialty = required(node, "specialty");
+            doctor.contact = text(node, "contact");
+            doctor.userId = text(node, "userId") == null ? null : id(node, "userId");
+            return doctor;
+        }, (batch, tally) -> saveDoctors(batch, linkedUserIds, tally));
+        if (report.getImported() > 0) {
+            // Inserts made outside Hibernate do not invalidate its cached "no doctor for this user" answers.
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion("doctor-by-user");
+            doctorService.refreshDirectory();
+        }
+        return report;
+    }
+
+    private <T> ImportReport importRows(String entity, InputStream in, Format format,
+                                        RowParser<T> parser, BatchSaver<T> saver) {
+        long start = System.nanoTime();
+        Tally tally = new Tally();
+        List<T> batch = new ArrayList<>(Math.min(batchSize, 10_000));
+        ObjectReader reader = format == Format.CSV ? csvReader : ndjsonReader;
+        try (MappingIterator<JsonNode> rows = reader.readValues(in)) {
+            while (tally.complete && rows.hasNextValue()) {
+                JsonNode node = rows.nextValue();
+                long row = ++tally.rows;
+                try {
+                    if (!node.isObject()) {
+                        throw new InvalidRow("not an object");
+                    }
+                    batch.add(parser.parse(row, node));
+                } catch (InvalidRow e) {
+                    tally.reject(row, e.getMessage());
+                }
+                if (batch.size() >= batchSize) {
+                    tally.complete = saver.save(batch, tally);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            // Malformed input cannot be resynchronised; keep what was read before it.
+            tally.reject(tally.rows + 1, "unreadable, import stopped: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            tally.complete = false;
+        }
+        if (!batch.isEmpty() && !saver.save(batch, tally)) {
+            tally.complete = false;
+        }
+        long elapsed = System.nanoTime() - start;
+        record(entity, tally, elapsed);
+        return new ImportReport(entity, tally.rows, tally.imported, tally.rejectedCount, tally.rejected,
+                tally.complete, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private boolean saveAppointments(List<AppointmentRow> batch, Set<Long> patientIds, Tally tally) {
+        Set<Long> unchecked = new HashSet<>();
+        for (AppointmentRow appointment : batch) {
+            if (!patientIds.contains(appointment.patientId)) {
+                unchecked.add(appointment.patientId);
+            }
+        }
+        if (!unchecked.isEmpty()) {
+            patientIds.addAll(userRepository.findExistingIds(unchecked));
+        }
+        List<AppointmentRow> accepted = new ArrayList<>(batch.size());
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (AppointmentRow appointment : batch) {
+            if (!patientIds.contains(appointment.patientId)) {
+                tally.reject(appointment.row, "unknown patient " + appointment.patientId);
+            } else if (holdsSlot(appointment.status)
+                    && !slotOccupancyIndex.tryReserve(appointment.doctorId, appointment.time)) {
+                tally.reject(appointment.row, "doctor " + appointment.doctorId + " is already booked at " + appointment.time);
+            } else {
+                accepted.add(appointment);
+                args.add(new Object[]{appointment.doctorId, appointment.patientId, appointment.time, appointment.status.name()});
+            }
+        }
+        if (accepted.isEmpty()) {
+            return true;
+        }
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_APPOINTMENT, args));
+        } catch (RuntimeException e) {
+            for (AppointmentRow appointment : accepted) {
+                if (holdsSlot(appointment.status)) {
+                    slotOccupancyIndex.release(appointment.doctorId, appointment.time);
+                }
+            }
+            tally.failBatch(accepted.stream().mapToLong(appointment -> appointment.row).toArray(), e);
+            return false;
+        }
+        for (AppointmentRow appointment : accepted) {
+            appointmentAnalytics.imported(appointment.doctorId, appointment.time, appointment.status);
+        }
+        tally.imported += accepted.size();
+        return true;
+    }
+
+    private boolean saveDoctors(List<DoctorRow> batch, Set<Long> linkedUserIds, Tally tally) {
+        Set<Long> userIds = new HashSet<>();
+        for (DoctorRow doctor : batch) {
+            if (doctor.userId != null) {
+                userIds.add(doctor.userId);
+            }
+        }
+        Set<Long> existing = userIds.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingIds(userIds));
+        List<DoctorRow> accepted = new ArrayList<>(batch.size());
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (DoctorRow doctor : batch) {
+            if (doctor.userId != null && !existing.contains(doctor.userId)) {
+                tally.reject(doctor.row, "unknown user " + doctor.userId);
+            } else if (doctor.userId != null && !linkedUserIds.add(doctor.userId)) {
+                tally.reject(doctor.row, "user " + doctor.userId + " already has a doctor profile");
+            } else {
+                accepted.add(doctor);
+                args.add(new Object[]{doctor.name, doctor.specialty, doctor.contact, doctor.userId});
+            }
+        }
+        if (accepted.isEmpty()) {
+            return true;
+        }
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_DOCTOR, args));
+        } catch (RuntimeException e) {
+            for (DoctorRow doctor : accepted) {
+                if (doctor.userId != null) {
+                    linkedUserIds.remove(doctor.userId);
+                }
+            }
+            tally.failBatch(accepted.stream().mapToLong(doctor -> doctor.row).toArray(), e);
+            return false;
+        }
+        tally.imported += accepted.size();
+        return true;
+    }
+
+    private void record(String entity, Tally tally, long elapsedNanos) {
+        Counter.builder("import.rows").tag("entity", entity).tag("outcome", "imported").register(meterRegistry)
+                .increment(tally.imported);
+        Counter.builder("import.rows").tag("entity", entity).tag("outcome", "rejected").register(meterRegistry)
+                .increment(tally.rejectedCount);
+        Timer.builder("import.duration").tag("entity", entity).register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        double seconds = Math.max(elapsedNanos, 1) / 1e9;
+        logger.info(String.format("Imported %d of %d %s in %.1f ms (%.0f rows/s), %d rejected%s",
+                tally.imported, tally.rows, entity, elapsedNanos / 1e6, tally.rows / seconds, tally.rejectedCount,
+                tally.complete ? "" : ", stopped early"));
+    }
+
+    private static boolean holdsSlot(AppointmentStatus status) {
+        return status != AppointmentStatus.CANCELLED;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        String text = value.asText().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String required(JsonNode node, String field) {
+        String text = text(node, field);
+        if (text == null) {
+            throw new InvalidRow(field + " is required");
+        }
+        return text;
+    }
+
+    private static long id(JsonNode node, String field) {
+        String text = required(node, field);
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new InvalidRow(field + " is not an id: " + text);
+        }
+    }
+
+    private static LocalDateTime time(JsonNode node, String field) {
+        String text = required(node, field);
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRow(field + " is not a date-time: " + text);
+        }
+    }
+
+    private static AppointmentStatus status(JsonNode node) {
+        String text = text(node, "status");
+        if (text == null) {
+            return AppointmentStatus.PENDING;
+        }
+        try {
+            return AppointmentStatus.parse(text);
+        } catch (RuntimeException e) {
+            throw new InvalidRow(e.getMessage());
+        }
+    }
+
+    private interface RowParser<T> {
+        T parse(long row, JsonNode node);
+    }
+
+    // Saves what passes the batch's checks; false when the batch could not be written.
+    private interface BatchSaver<T> {
+        boolean save(List<T> batch, Tally tally);
+    }
+
+    private static final class AppointmentRow {
+        long row;
+        long doctorId;
+        long patientId;
+        LocalDateTime time;
+        AppointmentStatus status;
+    }
+
+    private static final class DoctorRow {
+        long row;
+        String name;
+        String specialty;
+        String contact;
+        Long userId;
+    }
+
+    private static final class Tally {
+        long rows;
+        long imported;
+        long rejectedCount;
+        boolean complete = true;
+        final List<ImportReport.Rejection> rejected = new ArrayList<>();
+
+        void reject(long row, String reason) {
+            rejectedCount++;
+            if (rejected.size() < MAX_LISTED_REJECTIONS) {
+                rejected.add(new ImportReport.Rejection(row, reason));
+            }
+        }
+
+        void failBatch(long[] rows, RuntimeException e) {
+            String reason = "not saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            logger.warning("Import batch of " + rows.length + " rows failed, stopping: " + reason);
+            for (long row : rows) {
+                reject(row, reason);
+            }
+        }
+    }
+
+    // Thrown without a stack trace; a bad file can reject millions of rows.
+    private static final class InvalidRow extends RuntimeException {
+        InvalidRow(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.healthcare_appointment_api.service;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.healthcare_appointment_api.service;
+
+public class InvalidRegistrationException extends RuntimeException {
+    public InvalidRegistrationException(String message) {
+        super(message);
+    }
+}
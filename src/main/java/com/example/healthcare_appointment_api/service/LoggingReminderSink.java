@@ -0,0 +1,41 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.Reminder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Stand-in sink for development and tests: appends each reminder as a JSON line to a file, or
+ * logs it when no file is configured.
+ */
+public class LoggingReminderSink implements ReminderSink {
+    private static final Logger logger = Logger.getLogger(LoggingReminderSink.class.getName());
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public LoggingReminderSink(ObjectMapper objectMapper, Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public void deliver(List<Reminder> reminders) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (Reminder reminder : reminders) {
+            lines.append(objectMapper.writeValueAsString(reminder)).append('\n');
+        }
+        if (file != null) {
+            Files.writeString(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } else {
+            logger.info("Reminders due:\n" + lines);
+        }
+    }
+}
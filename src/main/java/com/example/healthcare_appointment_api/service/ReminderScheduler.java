@@ -0,0 +1,475 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.dto.BookedSlot;
+import com.example.healthcare_appointment_api.dto.Reminder;
+import com.example.healthcare_appointment_api.model.AppointmentStatus;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Sends reminders a configured number of minutes before each appointment. Pending reminders sit
+ * in a TimingWheel keyed by appointment id and lead, and only those due within the horizon are
+ * held; the rest are read off idx_appointment_time as the horizon moves forward. Bookings on this
+ * instance are scheduled as they happen, bookings taken by other instances arrive through an
+ * id-ordered catch-up. Ids are taken at insert but show up at commit, and the catch-up may read a
+ * lagging replica, so each catch-up also re-reads the ids seen over the last
+ * {@code appointment.reminder.late-commit-ms}, adding only reminders not already in the wheel
+ * and not yet due. Due reminders are re-read from the database in batches, so nothing goes
+ * out for an appointment that has since been cancelled, and handed to the ReminderSink.
+ * <p>
+ * The time up to which every due reminder has been delivered is kept in reminder_checkpoint. After
+ * a restart only reminders due after it are reloaded, by an index range rather than a table
+ * scan; a batch delivered just before a crash may therefore be delivered twice. Enable it on one
+ * instance only.
+ */
+@Component
+public class ReminderScheduler {
+    private static final Logger logger = Logger.getLogger(ReminderScheduler.class.getName());
+    private static final String CREATE_TABLE =
+            "CREATE TABLE IF NOT EXISTS reminder_checkpoint (id INT PRIMARY KEY, delivered_through BIGINT NOT NULL)";
+    private static final int WHEEL_SIZE = 512;
+    // A timer key is the appointment id shifted left, with the lead's index in the low bits.
+    private static final int LEAD_BITS = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final AppointmentRepository appointmentRepository;
+    private final JdbcTemplate jdbc;
+    private final ReminderSink sink;
+    private final boolean enabled;
+    private final int[] leadMinutes;
+    private final long minLeadMillis;
+    private final long maxLeadMillis;
+    private final long tickMillis;
+    private final int levels;
+    private final long horizonMillis;
+    private final int batchSize;
+    private final int maxPending;
+    private final long retryMillis;
+    private final long lateCommitMillis;
+    // Guards the wheel; never held across I/O.
+    private final ReentrantLock lock = new ReentrantLock();
+    // Serializes start, stop and the periodic refresh.
+    private final ReentrantLock loading = new ReentrantLock();
+    // Bookings made here since the last catch-up; schedule() has already added them.
+    private final Set<Long> bookedHere = ConcurrentHashMap.newKeySet();
+    // Due keys the sink has not taken yet. Only the tick thread touches it.
+    private final List<Long> backlog = new ArrayList<>();
+    // (time, lastSeenId) after each catch-up, oldest first. Guarded by loading.
+    private final ArrayDeque<long[]> seenMarks = new ArrayDeque<>();
+    private final Counter sent;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer batchTimer;
+    private TimingWheel wheel;
+    private ScheduledExecutorService ticker;
+    private long scheduledThrough;
+    private long lastSeenId;
+    private long retryAt;
+
+    public ReminderScheduler(AppointmentRepository appointmentRepository,
+                             DataSource dataSource,
+                             ObjectProvider<ReminderSink> sinks,
+                             ObjectMapper objectMapper,
+                             @Value("${appointment.reminder.enabled:true}") boolean enabled,
+                             @Value("${appointment.reminder.lead-minutes:60}") int[] leadMinutes,
+                             @Value("${appointment.reminder.tick-ms:1000}") long tickMillis,
+                             @Value("${appointment.reminder.horizon-hours:48}") long horizonHours,
+                             @Value("${appointment.reminder.batch-size:500}") int batchSize,
+                             @Value("${appointment.reminder.max-pending:5000000}") int maxPending,
+                             @Value("${appointment.reminder.retry-ms:5000}") long retryMillis,
+                             @Value("${appointment.reminder.late-commit-ms:300000}") long lateCommitMillis,
+                             @Value("${appointment.reminder.log-file:}") String logFile,
+                             MeterRegistry meterRegistry) {
+        if (leadMinutes.length == 0 || leadMinutes.length > 1 << LEAD_BITS) {
+            throw new RuntimeException("appointment.reminder.lead-minutes takes 1 to " + (1 << LEAD_BITS) + " values");
+        }
+        this.appointmentRepository = appointmentRepository;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.sink = sinks.getIfAvailable(() ->
+                new LoggingReminderSink(objectMapper, logFile.isEmpty() ? null : Path.of(logFile)));
+        this.enabled = enabled;
+        this.leadMinutes = leadMinutes.clone();
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int lead : leadMinutes) {
+            min = Math.min(min, TimeUnit.MINUTES.toMillis(lead));
+            max = Math.max(max, TimeUnit.MINUTES.toMillis(lead));
+        }
+        this.minLeadMillis = min;
+        this.maxLeadMillis = max;
+        this.tickMillis = tickMillis;
+        this.horizonMillis = TimeUnit.HOURS.toMillis(horizonHours);
+        // Enough levels that the top one reaches well past the horizon.
+        int wheelLevels = 1;
+        for (long reach = tickMillis * WHEEL_SIZE; reach < 2 * horizonMillis; reach *= WHEEL_SIZE) {
+            wheelLevels++;
+        }
+        this.levels = wheelLevels;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.retryMillis = retryMillis;
+        this.lateCommitMillis = lateCommitMillis;
+        this.sent = Counter.builder("appointment.reminder.sent").register(meterRegistry);
+        this.dropped = Counter.builder("appointment.reminder.dropped").register(meterRegistry);
+        this.failed = Counter.builder("appointment.reminder.failed").register(meterRegistry);
+        this.batchTimer = Timer.builder("appointment.reminder.batch").register(meterRegistry);
+        Gauge.builder("appointment.reminder.pending", this, ReminderScheduler::pending).register(meterRegistry);
+    }
+
+    /**
+     * Loads the reminders owed since the checkpoint and those due within the horizon, then starts
+     * the tick thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        loading.lock();
+        try {
+            if (ticker != null) {
+                return;
+            }
+            long begin = System.nanoTime();
+            jdbc.execute(CREATE_TABLE);
+            long now = System.currentTimeMillis();
+            List<Long> checkpoint = jdbc.queryForList(
+                    "SELECT delivered_through FROM reminder_checkpoint WHERE id = 1", Long.class);
+            // Without a checkpoint nothing is owed from before now.
+            long after = checkpoint.isEmpty() ? now : checkpoint.get(0);
+            lastSeenId = appointmentRepository.findMaxId();
+            seenMarks.clear();
+            seenMarks.addLast(new long[]{now, lastSeenId});
+            lock.lock();
+            try {
+                wheel = new TimingWheel(tickMillis, WHEEL_SIZE, levels, now);
+            } finally {
+                lock.unlock();
+            }
+            int loaded = loadRange(after, now + horizonMillis, now);
+            scheduledThrough = now + horizonMillis;
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "appointment-reminders");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+            logger.info("Scheduled " + loaded + " reminders due by " + toDateTime(scheduledThrough) + " in "
+                    + (System.nanoTime() - begin) / 1_000_000 + " ms");
+        } finally {
+            loading.unlock();
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        loading.lock();
+        try {
+            if (ticker == null) {
+                return;
+            }
+            ticker.shutdownNow();
+            try {
+                ticker.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ticker = null;
+            backlog.clear();
+            lock.lock();
+            try {
+                wheel = null;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            loading.unlock();
+        }
+    }
+
+    /** Schedules the reminders for a booking just made on this instance. */
+    public void schedule(AppointmentView appointment) {
+        if (!enabled) {
+            return;
+        }
+        bookedHere.add(appointment.getId());
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (wheel != null) {
+                addTimers(appointment.getId(), toMillis(appointment.getAppointmentTime()), now,
+                        Long.MIN_VALUE, now + horizonMillis);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancel(long appointmentId) {
+        lock.lock();
+        try {
+            if (wheel != null) {
+                for (int i = 0; i < leadMinutes.length; i++) {
+                    wheel.cancel(key(appointmentId, i));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Picks up bookings made by other instances and moves the horizon forward. The horizon stays
+     * put while the wheel is full, so pending reminders never exceed the bound by more than one
+     * interval's bookings.
+     */
+    @Scheduled(initialDelayString = "${appointment.reminder.load-interval-ms:60000}", fixedDelayString = "${appointment.reminder.load-interval-ms:60000}")
+    public void refresh() {
+        loading.lock();
+        try {
+            if (ticker == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            catchUp(now);
+            if (pending() < maxPending) {
+                loadRange(scheduledThrough, now + horizonMillis, now);
+                scheduledThrough = now + horizonMillis;
+            } else {
+                logger.warning("Reminder wheel is full at " + pending() + " pending; horizon held at "
+                        + toDateTime(scheduledThrough));
+            }
+        } finally {
+            loading.unlock();
+        }
+    }
+
+    public int pending() {
+        lock.lock();
+        try {
+            return wheel == null ? 0 : wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reminders due in (after, through], for appointments that have not started by now.
+    private int loadRange(long after, long through, long now) {
+        LocalDateTime cursorTime = toDateTime(Math.max(after + minLeadMillis, now));
+        long cursorId = Long.MAX_VALUE;
+        LocalDateTime to = toDateTime(through + maxLeadMillis);
+        int added = 0;
+        List<BookedSlot> page;
+        do {
+            page = appointmentRepository.findUpcomingPage(cursorTime, cursorId, to, PageRequest.of(0, LOAD_BATCH_SIZE));
+            lock.lock();
+            try {
+                for (BookedSlot slot : page) {
+                    added += addTimers(slot.getId(), toMillis(slot.getAppointmentTime()), now, after, through);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (!page.isEmpty()) {
+                BookedSlot last = page.get(page.size() - 1);
+                cursorTime = last.getAppointmentTime();
+                cursorId = last.getId();
+            }
+        } while (page.size() == LOAD_BATCH_SIZE);
+        return added;
+    }
+
+    private void catchUp(long now) {
+        long highWater = lastSeenId;
+        List<BookedSlot> page;
+        long afterId = rescanFrom(now);
+        do {
+            page = appointmentRepository.findBookedSlotsAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            lock.lock();
+            try {
+                for (BookedSlot slot : page) {
+                    afterId = slot.getId();
+                    long appointmentMillis = toMillis(slot.getAppointmentTime());
+                    if (slot.getId() <= highWater) {
+                        addMissedTimers(slot.getId(), appointmentMillis, now);
+                        continue;
+                    }
+                    lastSeenId = slot.getId();
+                    if (!bookedHere.remove(slot.getId())) {
+                        addTimers(slot.getId(), appointmentMillis, now, Long.MIN_VALUE, now + horizonMillis);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        } while (page.size() == LOAD_BATCH_SIZE);
+        long seen = lastSeenId;
+        bookedHere.removeIf(id -> id <= seen);
+        seenMarks.addLast(new long[]{now, seen});
+    }
+
+    // The high-water id as it stood late-commit-ms ago; older marks are dropped.
+    private long rescanFrom(long now) {
+        long cutoff = now - lateCommitMillis;
+        long[] from = seenMarks.pollFirst();
+        while (!seenMarks.isEmpty() && seenMarks.peekFirst()[0] <= cutoff) {
+            from = seenMarks.pollFirst();
+        }
+        seenMarks.addFirst(from);
+        return from[1];
+    }
+
+    // Caller holds the lock. For a row the catch-up had already passed: anything at or before the
+    // wheel's current time has been handed out, and anything still pending is in the wheel.
+    private void addMissedTimers(long appointmentId, long appointmentMillis, long now) {
+        if (appointmentMillis <= now) {
+            return;
+        }
+        for (int i = 0; i < leadMinutes.length; i++) {
+            long key = key(appointmentId, i);
+            long due = appointmentMillis - TimeUnit.MINUTES.toMillis(leadMinutes[i]);
+            if (!wheel.isScheduled(key) && due > wheel.currentTime() && due <= now + horizonMillis) {
+                wheel.schedule(key, due);
+            }
+        }
+    }
+
+    // Caller holds the lock. A reminder already past its due time fires on the next tick.
+    private int addTimers(long appointmentId, long appointmentMillis, long now, long after, long through) {
+        if (appointmentMillis <= now) {
+            return 0;
+        }
+        int added = 0;
+        for (int i = 0; i < leadMinutes.length; i++) {
+            long due = appointmentMillis - TimeUnit.MINUTES.toMillis(leadMinutes[i]);
+            if (due > after && due <= through && wheel.schedule(key(appointmentId, i), due)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            long through;
+            lock.lock();
+            try {
+                if (wheel == null) {
+                    return;
+                }
+                wheel.advance(now, backlog::add);
+                through = wheel.currentTime();
+            } finally {
+                lock.unlock();
+            }
+            if (backlog.isEmpty() || now < retryAt) {
+                return;
+            }
+            if (deliver(now)) {
+                writeCheckpoint(through);
+            } else {
+                retryAt = now + retryMillis;
+            }
+        } catch (RuntimeException e) {
+            logger.warning("Reminder tick failed: " + e.getMessage());
+        }
+    }
+
+    // True once the whole backlog has been delivered; on failure the rest stays for the next try.
+    private boolean deliver(long now) {
+        while (!backlog.isEmpty()) {
+            List<Long> keys = backlog.subList(0, Math.min(batchSize, backlog.size()));
+            Timer.Sample sample = Timer.start();
+            try {
+                List<Reminder> reminders = toReminders(keys, now);
+                if (!reminders.isEmpty()) {
+                    sink.deliver(reminders);
+                }
+                sent.increment(reminders.size());
+                dropped.increment(keys.size() - reminders.size());
+            } catch (Exception e) {
+                failed.increment(keys.size());
+                logger.warning("Could not deliver " + keys.size() + " reminders, " + backlog.size()
+                        + " waiting: " + e.getMessage());
+                return false;
+            } finally {
+                sample.stop(batchTimer);
+            }
+            keys.clear();
+        }
+        return true;
+    }
+
+    private List<Reminder> toReminders(List<Long> keys, long now) {
+        Set<Long> ids = new HashSet<>();
+        for (long key : keys) {
+            ids.add(key >>> LEAD_BITS);
+        }
+        Map<Long, AppointmentView> views = new HashMap<>();
+        for (AppointmentView view : appointmentRepository.findViewsByIds(ids)) {
+            views.put(view.getId(), view);
+        }
+        List<Reminder> reminders = new ArrayList<>(keys.size());
+        for (long key : keys) {
+            AppointmentView view = views.get(key >>> LEAD_BITS);
+            // Gone or cancelled since it was scheduled, or already started while the sink was down.
+            if (view != null && !AppointmentStatus.CANCELLED.name().equals(view.getStatus())
+                    && toMillis(view.getAppointmentTime()) > now) {
+                reminders.add(new Reminder(view, leadMinutes[(int) (key & ((1 << LEAD_BITS) - 1))]));
+            }
+        }
+        return reminders;
+    }
+
+    private void writeCheckpoint(long deliveredThrough) {
+        if (jdbc.update("UPDATE reminder_checkpoint SET delivered_through = ? WHERE id = 1", deliveredThrough) == 0) {
+            jdbc.update("INSERT INTO reminder_checkpoint (id, delivered_through) VALUES (1, ?)", deliveredThrough);
+        }
+    }
+
+    private static long key(long appointmentId, int leadIndex) {
+        return appointmentId << LEAD_BITS | leadIndex;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
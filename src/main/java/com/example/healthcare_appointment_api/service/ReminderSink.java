@@ -0,0 +1,14 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.Reminder;
+
+import java.util.List;
+
+/**
+ * Delivers reminders to patients and doctors, one batch at a time. Declare a bean to replace the
+ * default LoggingReminderSink. If deliver throws, the whole batch is offered again on the next
+ * tick, so an implementation should be idempotent per appointment and lead.
+ */
+public interface ReminderSink {
+    void deliver(List<Reminder> reminders) throws Exception;
+}
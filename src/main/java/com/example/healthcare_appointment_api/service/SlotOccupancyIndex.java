@@ -0,0 +1,154 @@
+package com.example.healthcare_appointment_api.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of booked appointment times, one sorted {@code long[]} of epoch seconds per doctor.
+ * Mutations and reads for a doctor are serialized on one of a fixed set of lock stripes, so two
+ * bookings for the same doctor can never both claim the same slot.
+ */
+@Component
+public class SlotOccupancyIndex {
+    private static final int STRIPES = 64;
+
+    private final ConcurrentHashMap<Long, DoctorSlots> slotsByDoctor = new ConcurrentHashMap<>();
+    // Monitors are fine here: the critical sections never block, so a virtual thread stays pinned
+    // only for an array search.
+    private final Object[] locks = new Object[STRIPES];
+    private final AtomicLong size = new AtomicLong();
+
+    public SlotOccupancyIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public boolean tryReserve(long doctorId, LocalDateTime appointmentTime) {
+        long key = toKey(appointmentTime);
+        synchronized (lockFor(doctorId)) {
+            if (!slotsFor(doctorId).insert(key)) {
+                return false;
+            }
+        }
+        size.incrementAndGet();
+        return true;
+    }
+
+    public void release(long doctorId, LocalDateTime appointmentTime) {
+        long key = toKey(appointmentTime);
+        DoctorSlots slots = slotsByDoctor.get(doctorId);
+        if (slots == null) {
+            return;
+        }
+        synchronized (lockFor(doctorId)) {
+            if (!slots.remove(key)) {
+                return;
+            }
+        }
+        size.decrementAndGet();
+    }
+
+    public boolean isBooked(long doctorId, LocalDateTime appointmentTime) {
+        DoctorSlots slots = slotsByDoctor.get(doctorId);
+        if (slots == null) {
+            return false;
+        }
+        long key = toKey(appointmentTime);
+        synchronized (lockFor(doctorId)) {
+            return slots.contains(key);
+        }
+    }
+
+    public long nextFreeSlot(long doctorId, long fromKey, long toKey, long slotSeconds) {
+        long start = Math.floorDiv(fromKey + slotSeconds - 1, slotSeconds) * slotSeconds;
+        DoctorSlots slots = slotsByDoctor.get(doctorId);
+        if (slots == null) {
+            return start + slotSeconds <= toKey ? start : -1;
+        }
+        synchronized (lockFor(doctorId)) {
+            return slots.nextFree(start, toKey, slotSeconds);
+        }
+    }
+
+    public long size() {
+        return size.get();
+    }
+
+    public void clear() {
+        slotsByDoctor.clear();
+        size.set(0);
+    }
+
+    static long toKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime fromKey(long key) {
+        return LocalDateTime.ofEpochSecond(key, 0, ZoneOffset.UTC);
+    }
+
+    private DoctorSlots slotsFor(long doctorId) {
+        return slotsByDoctor.computeIfAbsent(doctorId, id -> new DoctorSlots());
+    }
+
+    private Object lockFor(long doctorId) {
+        return locks[Long.hashCode(doctorId) & (STRIPES - 1)];
+    }
+
+    static final class DoctorSlots {
+        private long[] keys = new long[4];
+        private int size;
+
+        boolean insert(long key) {
+            int pos = Arrays.binarySearch(keys, 0, size, key);
+            if (pos >= 0) {
+                return false;
+            }
+            pos = -pos - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            System.arraycopy(keys, pos, keys, pos + 1, size - pos);
+            keys[pos] = key;
+            size++;
+            return true;
+        }
+
+        boolean remove(long key) {
+            int pos = Arrays.binarySearch(keys, 0, size, key);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long key) {
+            return Arrays.binarySearch(keys, 0, size, key) >= 0;
+        }
+
+        long nextFree(long start, long end, long slotSeconds) {
+            int pos = Arrays.binarySearch(keys, 0, size, start);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            while (start + slotSeconds <= end) {
+                if (pos >= size || keys[pos] >= start + slotSeconds) {
+                    return start;
+                }
+                start += ((keys[pos] - start) / slotSeconds + 1) * slotSeconds;
+                while (pos < size && keys[pos] < start) {
+                    pos++;
+                }
+            }
+            return -1;
+        }
+    }
+}
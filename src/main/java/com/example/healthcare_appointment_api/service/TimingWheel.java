@@ -0,0 +1,280 @@
+package com.example.healthcare_appointment_api.service;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel over positive long keys. Level 0 has one bucket per tick; each level
+ * above has buckets as long as a whole turn of the level below and is poured down into it as time
+ * reaches them, so scheduling and cancelling are O(1) whatever the number of pending timers.
+ * Everything is stored in primitive arrays: a bucket is a long[] of keys and the authoritative
+ * deadline of each key lives in an open-addressing map, about 35 bytes per pending timer.
+ * Cancelled or rescheduled keys leave a stale copy in their old bucket, which is recognised by its
+ * deadline and dropped when the bucket is reached. Not thread-safe.
+ */
+public final class TimingWheel {
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int mask;
+    private final long[] levelTicks;
+    private final long[][][] buckets;
+    private final int[][] bucketSizes;
+    private final LongLongMap deadlines = new LongLongMap();
+    private long[] overdue = new long[16];
+    private int overdueSize;
+    // Every key due before this time has been handed out.
+    private long time;
+
+    public TimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || Integer.bitCount(wheelSize) != 1 || levels < 1) {
+            throw new IllegalArgumentException("Timing wheel needs a positive tick, a power-of-two size and a level");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.mask = wheelSize - 1;
+        this.levelTicks = new long[levels];
+        this.buckets = new long[levels][wheelSize][];
+        this.bucketSizes = new int[levels][wheelSize];
+        long tick = tickMillis;
+        for (int level = 0; level < levels; level++) {
+            levelTicks[level] = tick;
+            tick = Math.multiplyExact(tick, wheelSize);
+        }
+        this.time = Math.floorDiv(startMillis, tickMillis) * tickMillis;
+    }
+
+    /**
+     * Schedules the key for the deadline, replacing any deadline it already had. Returns false,
+     * leaving the key unscheduled, if the deadline lies beyond the top level's reach.
+     */
+    public boolean schedule(long key, long deadlineMillis) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Timer keys must be positive");
+        }
+        if (deadlines.get(key) == deadlineMillis) {
+            return true;
+        }
+        if (!place(key, deadlineMillis)) {
+            deadlines.remove(key);
+            return false;
+        }
+        deadlines.put(key, deadlineMillis);
+        return true;
+    }
+
+    public boolean cancel(long key) {
+        return deadlines.remove(key) != NONE;
+    }
+
+    public boolean isScheduled(long key) {
+        return deadlines.get(key) != NONE;
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    public long currentTime() {
+        return time;
+    }
+
+    // The latest deadline schedule() accepts right now.
+    public long reach() {
+        long top = levelTicks[levelTicks.length - 1];
+        return (Math.floorDiv(time + top - 1, top) + wheelSize) * top - 1;
+    }
+
+    /**
+     * Hands every key due before {@code nowMillis}, rounded down to a tick, to the consumer one
+     * tick after another, and returns how many there were.
+     */
+    public int advance(long nowMillis, LongConsumer expired) {
+        int count = 0;
+        for (int i = 0; i < overdueSize; i++) {
+            long key = overdue[i];
+            long deadline = deadlines.get(key);
+            if (deadline != NONE && deadline < time) {
+                deadlines.remove(key);
+                expired.accept(key);
+                count++;
+            }
+        }
+        overdueSize = 0;
+        if (overdue.length > 1024) {
+            overdue = new long[16];
+        }
+        while (time + tickMillis <= nowMillis) {
+            for (int level = levelTicks.length - 1; level > 0; level--) {
+                if (time % levelTicks[level] == 0) {
+                    cascade(level);
+                }
+            }
+            count += expire(expired);
+            time += tickMillis;
+        }
+        return count;
+    }
+
+    private boolean place(long key, long deadline) {
+        if (deadline < time) {
+            if (overdueSize == overdue.length) {
+                overdue = Arrays.copyOf(overdue, overdueSize * 2);
+            }
+            overdue[overdueSize++] = key;
+            return true;
+        }
+        for (int level = 0; level < levelTicks.length; level++) {
+            long tick = levelTicks[level];
+            long slot = deadline / tick;
+            long first = Math.floorDiv(time + tick - 1, tick);
+            if (slot >= first && slot < first + wheelSize) {
+                add(level, (int) (slot & mask), key);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(int level, int index, long key) {
+        long[] bucket = buckets[level][index];
+        int size = bucketSizes[level][index];
+        if (bucket == null) {
+            bucket = buckets[level][index] = new long[4];
+        } else if (size == bucket.length) {
+            bucket = buckets[level][index] = Arrays.copyOf(bucket, size * 2);
+        }
+        bucket[size] = key;
+        bucketSizes[level][index] = size + 1;
+    }
+
+    // Moves the bucket that starts now down a level; keys whose deadline moved elsewhere are dropped.
+    private void cascade(int level) {
+        long tick = levelTicks[level];
+        int index = (int) ((time / tick) & mask);
+        long[] bucket = take(level, index);
+        int size = bucketSizes[level][index];
+        bucketSizes[level][index] = 0;
+        for (int i = 0; i < size; i++) {
+            long deadline = deadlines.get(bucket[i]);
+            if (deadline >= time && deadline < time + tick) {
+                place(bucket[i], deadline);
+            }
+        }
+    }
+
+    private int expire(LongConsumer expired) {
+        int index = (int) ((time / tickMillis) & mask);
+        long[] bucket = take(0, index);
+        int size = bucketSizes[0][index];
+        bucketSizes[0][index] = 0;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            long key = bucket[i];
+            long deadline = deadlines.get(key);
+            if (deadline >= time && deadline < time + tickMillis) {
+                deadlines.remove(key);
+                expired.accept(key);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Detaches the bucket, so memory follows the pending timers rather than their peak.
+    private long[] take(int level, int index) {
+        long[] bucket = buckets[level][index];
+        buckets[level][index] = null;
+        return bucket;
+    }
+
+    /** Open-addressing long-to-long map with linear probing; zero marks an empty slot. */
+    static final class LongLongMap {
+        private static final int MIN_CAPACITY = 16;
+
+        private long[] keys = new long[MIN_CAPACITY];
+        private long[] values = new long[MIN_CAPACITY];
+        private int size;
+
+        long get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return NONE;
+        }
+
+        void put(long key, long value) {
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            for (; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+            }
+            keys[i] = key;
+            values[i] = value;
+            // Kept at most two-thirds full.
+            if (++size * 3 > keys.length * 2) {
+                resize(keys.length * 2);
+            }
+        }
+
+        long remove(long key) {
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != key) {
+                if (keys[i] == 0) {
+                    return NONE;
+                }
+                i = (i + 1) & mask;
+            }
+            long value = values[i];
+            // Shift later members of the probe run back, so lookups never stop at a hole.
+            for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+                int home = slot(keys[j], mask);
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    i = j;
+                }
+            }
+            keys[i] = 0;
+            if (--size * 8 < keys.length && keys.length > MIN_CAPACITY) {
+                resize(keys.length / 2);
+            }
+            return value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[capacity];
+            values = new long[capacity];
+            int mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int j = slot(oldKeys[i], mask);
+                    while (keys[j] != 0) {
+                        j = (j + 1) & mask;
+                    }
+                    keys[j] = oldKeys[i];
+                    values[j] = oldValues[i];
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -1,62 +1,72 @@
 package com.example.healthcare_appointment_api.service;
 
+import com.example.healthcare_appointment_api.config.ReplicaRoutingDataSource;
 import com.example.healthcare_appointment_api.dto.AuthRequest;
 import com.example.healthcare_appointment_api.dto.AuthResponse;
+import com.example.healthcare_appointment_api.dto.UserView;
 import com.example.healthcare_appointment_api.model.User;
 import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.InvalidRefreshTokenException;
 import com.example.healthcare_appointment_api.security.JwtUtil;
+import com.example.healthcare_appointment_api.security.RefreshTokenStore;
+import com.example.healthcare_appointment_api.security.TokenRevocationList;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.logging.Logger;
 
 @Service
 public class UserService {
     private static final Logger logger = Logger.getLogger(UserService.class.getName());
+    // Anyone can call register, so it must never hand out ADMIN.
+    private static final Set<String> SELF_REGISTRATION_ROLES = Set.of("ROLE_PATIENT", "ROLE_DOCTOR");
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationList tokenRevocationList;
+    private final RefreshTokenStore refreshTokenStore;
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRouter;
 
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        AuthenticationManager authenticationManager,
-                       JwtUtil jwtUtil) {
+                       JwtUtil jwtUtil,
+                       TokenRevocationList tokenRevocationList,
+                       RefreshTokenStore refreshTokenStore,
+                       ObjectProvider<ReplicaRoutingDataSource> replicaRouter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
+        this.tokenRevocationList = tokenRevocationList;
+        this.refreshTokenStore = refreshTokenStore;
+        this.replicaRouter = replicaRouter;
     }
 
     public AuthResponse register(User user) {
-        if (user.getRoles() == null || user.getRoles().isEmpty()) {
-            Set<String> defaultRoles = new HashSet<>();
-            defaultRoles.add("ROLE_PATIENT");
-            user.setRoles(defaultRoles);
-        } else {
-            Set<String> normalizedRoles = new HashSet<>();
-            for (String role : user.getRoles()) {
-                normalizedRoles.add(role.startsWith("ROLE_") ? role.toUpperCase() : "ROLE_" + role.toUpperCase());
-            }
-            user.setRoles(normalizedRoles);
-        }
-        logger.info("Registering user: " + user.getUsername() + " with roles: " + user.getRoles());
+        user.setRoles(normalizeRoles(user.getRoles()));
+        logger.fine(() -> "Registering user: " + user.getUsername() + " with roles: " + user.getRoles());
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         userRepository.save(user);
-        String role = extractRole(user);
-        String token = jwtUtil.generateToken(user.getUsername(), role);
-        return new AuthResponse(token);
+        // Registration is anonymous, so the router could not note the write; the new user's first
+        // requests would otherwise read a replica that may not have the row yet.
+        replicaRouter.ifAvailable(router -> router.recordWrite(user.getId()));
+        return issueTokens(user.getId(), user.getUsername(), extractRole(user));
     }
 
     public AuthResponse login(AuthRequest authRequest) {
-        logger.info("Attempting login for username: " + authRequest.getUsername());
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         authRequest.getUsername(),
@@ -64,12 +74,48 @@ public class UserService {
                 )
         );
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        User user = userRepository.findByUsername(authRequest.getUsername())
+        User user = userRepository.findByUsernameOnPrimary(authRequest.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found: " + authRequest.getUsername()));
         String role = extractRole(user);
-        logger.info("User logged in: " + authRequest.getUsername() + " with role: " + role);
-        String token = jwtUtil.generateToken(user.getUsername(), role);
-        return new AuthResponse(token);
+        logger.fine(() -> "User logged in: " + authRequest.getUsername() + " with role: " + role);
+        return issueTokens(user.getId(), user.getUsername(), role);
+    }
+
+    // Needs neither BCrypt nor the user table: logout and disable are enforced through the
+    // in-memory revocation list.
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenStore.Rotation rotation = refreshToken == null ? null : refreshTokenStore.rotate(refreshToken);
+        if (rotation == null) {
+            throw new InvalidRefreshTokenException("Invalid or expired refresh token");
+        }
+        String token = jwtUtil.generateToken(rotation.getUserId(), rotation.getUsername(), rotation.getRole());
+        return new AuthResponse(token, rotation.getRefreshToken(), jwtUtil.getExpiration() / 1000);
+    }
+
+    private AuthResponse issueTokens(Long userId, String username, String role) {
+        String token = jwtUtil.generateToken(userId, username, role);
+        String refreshToken = refreshTokenStore.issue(userId, username, role);
+        return new AuthResponse(token, refreshToken, jwtUtil.getExpiration() / 1000);
+    }
+
+    public void revokeTokens(String username) {
+        updateRevocation(findByUsername(username), false);
+        logger.info("Revoked tokens for user: " + username);
+    }
+
+    public void setDisabled(Long userId, boolean disabled) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        updateRevocation(user, disabled);
+        logger.info((disabled ? "Disabled" : "Enabled") + " user: " + user.getUsername());
+    }
+
+    private void updateRevocation(User user, boolean disabled) {
+        Instant now = Instant.now();
+        user.setDisabled(disabled);
+        user.setTokensRevokedAt(now);
+        userRepository.save(user);
+        tokenRevocationList.revoke(user.getUsername(), now, disabled);
     }
 
     public User findByUsername(String username) {
@@ -77,7 +123,30 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
     }
 
-    private String extractRole(User user) {
+    @Transactional(readOnly = true)
+    public List<UserView> getAllUsers() {
+        return userRepository.findAllWithRoles().stream()
+                .map(user -> new UserView(user.getId(), user.getUsername(), Set.copyOf(user.getRoles()), user.isDisabled()))
+                .toList();
+    }
+
+    static Set<String> normalizeRoles(Set<String> roles) {
+        Set<String> normalizedRoles = new HashSet<>();
+        if (roles == null || roles.isEmpty()) {
+            normalizedRoles.add("ROLE_PATIENT");
+            return normalizedRoles;
+        }
+        for (String role : roles) {
+            String normalized = role.toUpperCase().startsWith("ROLE_") ? role.toUpperCase() : "ROLE_" + role.toUpperCase();
+            if (!SELF_REGISTRATION_ROLES.contains(normalized)) {
+                throw new InvalidRegistrationException("Role not allowed for registration: " + role);
+            }
+            normalizedRoles.add(normalized);
+        }
+        return normalizedRoles;
+    }
+
+    static String extractRole(User user) {
         return user.getRoles().stream()
                 .filter(r -> r.startsWith("ROLE_"))
                 .map(r -> r.replace("ROLE_", ""))
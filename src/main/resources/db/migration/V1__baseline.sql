@@ -0,0 +1,70 @@
+-- Schema as of the switch from spring.jpa.hibernate.ddl-auto=update to versioned migrations.
+-- Databases that ddl-auto already created are baselined at version 1 and skip this script.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255),
+    disabled BIT,
+    tokens_revoked_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_users_tokens_revoked_at ON users (tokens_revoked_at);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    roles VARCHAR(255) NOT NULL,
+    PRIMARY KEY (user_id, roles),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE doctor (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    specialty VARCHAR(255),
+    contact VARCHAR(255),
+    user_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_doctor_user UNIQUE (user_id),
+    CONSTRAINT fk_doctor_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE appointment (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    doctor_id BIGINT,
+    patient_id BIGINT,
+    appointment_time DATETIME(6),
+    status VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_appointment_doctor FOREIGN KEY (doctor_id) REFERENCES doctor (id),
+    CONSTRAINT fk_appointment_patient FOREIGN KEY (patient_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_appointment_doctor_time ON appointment (doctor_id, appointment_time);
+CREATE INDEX idx_appointment_patient_time ON appointment (patient_id, appointment_time);
+CREATE INDEX idx_appointment_time ON appointment (appointment_time);
+
+-- Rows keep the id they had in appointment, so there is no AUTO_INCREMENT here.
+CREATE TABLE appointment_archive (
+    id BIGINT NOT NULL,
+    doctor_id BIGINT,
+    patient_id BIGINT,
+    appointment_time DATETIME(6),
+    status VARCHAR(255),
+    archived_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_appointment_archive_doctor FOREIGN KEY (doctor_id) REFERENCES doctor (id),
+    CONSTRAINT fk_appointment_archive_patient FOREIGN KEY (patient_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_appointment_archive_doctor_time ON appointment_archive (doctor_id, appointment_time);
+CREATE INDEX idx_appointment_archive_patient_time ON appointment_archive (patient_id, appointment_time);
+
+-- Written by ReplicaLagMonitor when a read replica is configured.
+CREATE TABLE replica_heartbeat (
+    id INT NOT NULL,
+    beat_at BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
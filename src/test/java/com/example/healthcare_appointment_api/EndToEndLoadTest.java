@@ -0,0 +1,340 @@
+package com.example.healthcare_appointment_api;
+
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtUtil;
+import com.example.healthcare_appointment_api.service.DoctorService;
+import com.example.healthcare_appointment_api.service.SlotOccupancyIndex;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds a synthetic dataset into the embedded database and drives a weighted mix of register,
+ * login, doctor listing, booking and appointment listing through the real controllers over HTTP.
+ * Reports throughput and p50/p95/p99 per endpoint, plus SQL statements per request, counted on
+ * the server thread by a Hibernate statement inspector.
+ * Run with {@code mvn test -Pbenchmark -Dtest=EndToEndLoadTest}; the load.* system properties
+ * size the dataset and the workload, e.g.
+ * {@code -Dload.mix=register:2,login:5,doctors:30,book:13,appointments:50}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.healthcare_appointment_api.EndToEndLoadTest$SqlCounter",
+        "logging.level.com.example.healthcare_appointment_api=WARN"
+})
+class EndToEndLoadTest {
+    private static final int USERS = Integer.getInteger("load.users", 1_000);
+    private static final int DOCTORS = Integer.getInteger("load.doctors", 100);
+    private static final int APPOINTMENTS = Integer.getInteger("load.appointments", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("load.warmup", 1_000);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 10_000);
+    private static final String MIX = System.getProperty("load.mix", "register:2,login:5,doctors:30,book:13,appointments:50");
+    private static final String PASSWORD = "password";
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 7, 0, 0);
+
+    private static final int NO_RESPONSE = -1;
+    private static final Map<String, LongAdder[]> serverStats = new ConcurrentHashMap<>();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final AtomicInteger registered = new AtomicInteger();
+    private List<User> patients;
+    private List<String> patientTokens;
+    private List<String> doctorTokens;
+    private List<Long> doctorIds;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        long seedStart = System.nanoTime();
+        seed();
+        System.out.printf("seeded %d patients, %d doctors, %d appointments in %d ms%n", USERS, DOCTORS, APPOINTMENTS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+        Map<String, Integer> weights = parseMix(MIX);
+        run(weights, WARMUP_REQUESTS);
+        serverStats.clear();
+        Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+        Map<String, Map<Integer, LongAdder>> errors = new ConcurrentHashMap<>();
+        long elapsed = run(weights, REQUESTS, latencies, errors);
+
+        report(latencies, errors, elapsed);
+        // Non-2xx answers, such as 503 from a saturated BCrypt pool, are part of the result; only
+        // requests that got no response at all mean the run itself is broken.
+        long unanswered = errors.values().stream()
+                .mapToLong(byStatus -> byStatus.containsKey(NO_RESPONSE) ? byStatus.get(NO_RESPONSE).sum() : 0).sum();
+        assertEquals(0, unanswered, "requests without a response");
+    }
+
+    private void seed() {
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(user("load-patient-" + i, hash, "ROLE_PATIENT"));
+        }
+        List<User> doctorUsers = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            doctorUsers.add(user("load-doctor-" + i, hash, "ROLE_DOCTOR"));
+        }
+        patients = userRepository.saveAll(users);
+        doctorUsers = userRepository.saveAll(doctorUsers);
+
+        String[] specialties = {"Cardiology", "Neurology", "Dermatology", "Pediatrics", "Oncology", "General"};
+        List<Doctor> doctors = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setName("Dr. Load " + i);
+            doctor.setSpecialty(specialties[i % specialties.length]);
+            doctor.setContact("load-doctor-" + i + "@example.com");
+            doctor.setUser(doctorUsers.get(i));
+            doctors.add(doctor);
+        }
+        doctors = doctorRepository.saveAll(doctors);
+
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(doctors.get(i % DOCTORS));
+            appointment.setPatient(patients.get(i % USERS));
+            appointment.setAppointmentTime(FIRST_SLOT.plusMinutes(30L * (i / DOCTORS)));
+            appointment.setStatus("PENDING");
+            appointments.add(appointment);
+            if (appointments.size() == 1_000 || i == APPOINTMENTS - 1) {
+                for (Appointment saved : appointmentRepository.saveAll(appointments)) {
+                    slotOccupancyIndex.tryReserve(saved.getDoctor().getId(), saved.getAppointmentTime());
+                }
+                appointments.clear();
+            }
+        }
+        doctorService.refreshDirectory();
+
+        patientTokens = patients.stream()
+                .map(u -> jwtUtil.generateToken(u.getId(), u.getUsername(), "PATIENT")).toList();
+        doctorTokens = doctorUsers.stream()
+                .map(u -> jwtUtil.generateToken(u.getId(), u.getUsername(), "DOCTOR")).toList();
+        doctorIds = doctors.stream().map(Doctor::getId).toList();
+    }
+
+    private long run(Map<String, Integer> weights, int requests) throws Exception {
+        return run(weights, requests, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    private long run(Map<String, Integer> weights, int requests,
+                     Map<String, List<Long>> latencies, Map<String, Map<Integer, LongAdder>> errors) throws Exception {
+        String[] ops = weights.keySet().toArray(new String[0]);
+        int[] cumulative = new int[ops.length];
+        int total = 0;
+        for (int i = 0; i < ops.length; i++) {
+            total += weights.get(ops[i]);
+            cumulative[i] = total;
+        }
+        int weightSum = total;
+        AtomicInteger remaining = new AtomicInteger(requests);
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        long start = System.nanoTime();
+        for (int c = 0; c < CONCURRENCY; c++) {
+            clients.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (remaining.getAndDecrement() > 0) {
+                    int pick = random.nextInt(weightSum);
+                    int op = 0;
+                    while (cumulative[op] <= pick) {
+                        op++;
+                    }
+                    HttpRequest request = request(ops[op], random);
+                    String endpoint = request.method() + " " + request.uri().getPath();
+                    long begin = System.nanoTime();
+                    int status;
+                    try {
+                        status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (Exception e) {
+                        status = NO_RESPONSE;
+                    }
+                    long latency = System.nanoTime() - begin;
+                    latencies.computeIfAbsent(endpoint, e -> Collections.synchronizedList(new ArrayList<>()))
+                            .add(latency);
+                    if (status / 100 != 2) {
+                        errors.computeIfAbsent(endpoint, e -> new ConcurrentHashMap<>())
+                                .computeIfAbsent(status, code -> new LongAdder()).increment();
+                    }
+                }
+                return null;
+            });
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(30, TimeUnit.MINUTES));
+        return System.nanoTime() - start;
+    }
+
+    private HttpRequest request(String op, ThreadLocalRandom random) {
+        String base = "http://localhost:" + port;
+        switch (op) {
+            case "register":
+                return json(base + "/api/auth/register", null, "{\"username\":\"load-new-" + registered.incrementAndGet()
+                        + "\",\"password\":\"" + PASSWORD + "\",\"roles\":[\"PATIENT\"]}");
+            case "login":
+                return json(base + "/api/auth/login", null, "{\"username\":\""
+                        + patients.get(random.nextInt(USERS)).getUsername() + "\",\"password\":\"" + PASSWORD + "\"}");
+            case "doctors":
+                return get(base + "/api/doctors", patientTokens.get(random.nextInt(USERS)));
+            case "book":
+                long slot = APPOINTMENTS / DOCTORS + 1 + random.nextInt(1_000_000);
+                return json(base + "/api/appointments", patientTokens.get(random.nextInt(USERS)),
+                        "{\"doctor\":{\"id\":" + doctorIds.get(random.nextInt(DOCTORS)) + "},\"appointmentTime\":\""
+                                + FIRST_SLOT.plusMinutes(30 * slot) + "\"}");
+            case "appointments":
+                String token = random.nextInt(5) == 0
+                        ? doctorTokens.get(random.nextInt(DOCTORS))
+                        : patientTokens.get(random.nextInt(USERS));
+                return get(base + "/api/appointments?limit=20", token);
+            default:
+                throw new IllegalArgumentException("Unknown operation in load.mix: " + op);
+        }
+    }
+
+    private static HttpRequest json(String url, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static HttpRequest get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token).GET().build();
+    }
+
+    private static void report(Map<String, List<Long>> latencies, Map<String, Map<Integer, LongAdder>> errors,
+                               long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%d requests from %d clients in %.1f s: %.0f req/s%n", REQUESTS, CONCURRENCY, seconds, REQUESTS / seconds);
+        System.out.printf("%-26s %8s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "sql/req", "errors (status x count)");
+        latencies.keySet().stream().sorted().forEach(endpoint -> {
+            long[] sorted = latencies.get(endpoint).stream().mapToLong(Long::longValue).sorted().toArray();
+            LongAdder[] server = serverStats.get(endpoint);
+            double sqlPerRequest = server == null || server[0].sum() == 0 ? 0 : (double) server[1].sum() / server[0].sum();
+            StringBuilder failures = new StringBuilder();
+            errors.getOrDefault(endpoint, Map.of()).forEach((status, count) ->
+                    failures.append(status == NO_RESPONSE ? "none" : status).append('x').append(count.sum()).append(' '));
+            System.out.printf("%-26s %8d %9.0f %9.1f %9.1f %9.1f %9.1f  %s%n", endpoint, sorted.length,
+                    sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.95),
+                    percentile(sorted, 0.99), sqlPerRequest, failures.toString().trim());
+        });
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        Arrays.stream(mix.split(",")).map(String::trim).filter(s -> !s.isEmpty()).forEach(entry -> {
+            String[] parts = entry.split(":");
+            weights.put(parts[0], Integer.parseInt(parts[1]));
+        });
+        return weights;
+    }
+
+    private static User user(String username, String passwordHash, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(passwordHash);
+        user.setRoles(Set.of(role));
+        return user;
+    }
+
+    /** Counts the statements Hibernate prepares on the current request thread. */
+    public static class SqlCounter implements StatementInspector {
+        private static final ThreadLocal<int[]> current = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            int[] count = current.get();
+            if (count != null) {
+                count[0]++;
+            }
+            return sql;
+        }
+    }
+
+    @TestConfiguration
+    static class SqlAttribution {
+        @Bean
+        FilterRegistrationBean<Filter> sqlAttributionFilter() {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+                int[] count = new int[1];
+                SqlCounter.current.set(count);
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    SqlCounter.current.remove();
+                    HttpServletRequest http = (HttpServletRequest) request;
+                    LongAdder[] stats = serverStats.computeIfAbsent(http.getMethod() + " " + http.getRequestURI(),
+                            e -> new LongAdder[]{new LongAdder(), new LongAdder()});
+                    stats[0].increment();
+                    stats[1].add(count[0]);
+                }
+            });
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+}
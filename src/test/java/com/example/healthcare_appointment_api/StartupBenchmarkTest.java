@@ -0,0 +1,217 @@
+package com.example.healthcare_appointment_api;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Starts the application in a fresh JVM per run and measures the time from launching the process
+ * to the first 200 from /actuator/health, which needs the context, Tomcat and a database
+ * connection. Compares the default configuration (ddl-auto=update diffing the schema) with the
+ * fast-start profile, then adds a class-data-sharing archive recorded by a training run on the
+ * same classpath, and Spring AOT when the classes were built with {@code -Pfast-start}.
+ * The application classes are packed into a jar first, as class-data sharing only archives
+ * classes loaded from jars, and run with the main application.properties pointed at H2. Each
+ * mode gets its own H2 file database; the first, unmeasured run of a mode creates the schema,
+ * so later runs see an existing one as they would in production.
+ * Run with {@code mvn test -Pbenchmark -Dtest=StartupBenchmarkTest}, or after
+ * {@code mvn -Pfast-start package -DskipTests -Dcds.skip} to include AOT. The bench.startup.*
+ * system properties tune the runs.
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+    private static final int RUNS = Integer.getInteger("bench.startup.runs", 5);
+    private static final long TIMEOUT_SECONDS = Long.getLong("bench.startup.timeout-seconds", 120);
+    private static final Path WORK = Paths.get("target", "startup-benchmark");
+    private static final String AOT_INITIALIZER =
+            "com.example.healthcare_appointment_api.HealthcareAppointmentApiApplication__ApplicationContextInitializer";
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private String classpath;
+
+    @Test
+    void comparesTimeToFirstSuccessfulRequest() throws Exception {
+        deleteRecursively(WORK);
+        Files.createDirectories(WORK);
+        classpath = classpath();
+        List<String> defaults = List.of(
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.sql.init.mode=always",
+                "--spring.jpa.defer-datasource-initialization=true");
+        List<String> fastStart = List.of(
+                "--spring.profiles.active=fast-start",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+        boolean aot = isPresent(AOT_INITIALIZER);
+
+        System.out.printf("%d runs per mode, %s%n", RUNS, aot ? "AOT classes present" : "no AOT classes (build with -Pfast-start)");
+        report("ddl-auto=update", measure("update", List.of(), defaults));
+        report("fast-start", measure("fast-start", List.of(), fastStart));
+        report("fast-start+cds", measure("fast-start-cds", cds("fast-start-cds", List.of(), fastStart), fastStart));
+        if (aot) {
+            List<String> aotJvm = List.of("-Dspring.aot.enabled=true");
+            report("fast-start+aot", measure("fast-start-aot", aotJvm, fastStart));
+            List<String> aotCdsJvm = new ArrayList<>(aotJvm);
+            aotCdsJvm.addAll(cds("fast-start-aot-cds", aotJvm, fastStart));
+            report("fast-start+aot+cds", measure("fast-start-aot-cds", aotCdsJvm, fastStart));
+        }
+    }
+
+    // Records the archive with a run that exits once the context has refreshed; returns the flags that use it.
+    private List<String> cds(String mode, List<String> jvmArgs, List<String> appArgs) throws Exception {
+        Path archive = WORK.resolve(mode + ".jsa").toAbsolutePath();
+        List<String> training = new ArrayList<>(jvmArgs);
+        training.add("-XX:ArchiveClassesAtExit=" + archive);
+        training.add("-Dspring.context.exit=onRefresh");
+        Process process = launch(mode, "training", training, appArgs, freePort());
+        assertTrue(process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS), mode + " training run did not exit");
+        assertTrue(Files.exists(archive), mode + " training run wrote no archive, see " + WORK.resolve(mode + "-training.log"));
+        return List.of("-XX:SharedArchiveFile=" + archive, "-Xshare:auto");
+    }
+
+    private long[] measure(String mode, List<String> jvmArgs, List<String> appArgs) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int run = 0; run <= RUNS; run++) {
+            long elapsed = startOnce(mode, run == 0 ? "warmup" : "run" + run, jvmArgs, appArgs);
+            if (run > 0) {
+                millis[run - 1] = elapsed;
+            }
+        }
+        return millis;
+    }
+
+    private long startOnce(String mode, String label, List<String> jvmArgs, List<String> appArgs) throws Exception {
+        int port = freePort();
+        URI health = URI.create("http://localhost:" + port + "/actuator/health");
+        long start = System.nanoTime();
+        Process process = launch(mode, label, jvmArgs, appArgs, port);
+        try {
+            long deadline = start + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    fail(mode + " exited with " + process.exitValue() + ", see " + WORK.resolve(mode + "-" + label + ".log"));
+                }
+                try {
+                    HttpResponse<Void> response = http.send(HttpRequest.newBuilder(health).GET().build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet.
+                }
+                Thread.sleep(5);
+            }
+            fail(mode + " did not answer within " + TIMEOUT_SECONDS + " s");
+            return -1;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private Process launch(String mode, String label, List<String> jvmArgs, List<String> appArgs, int port)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(classpath);
+        command.add(HealthcareAppointmentApiApplication.class.getName());
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:file:" + WORK.toAbsolutePath().resolve(mode) + "/db;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        command.add("--spring.datasource.driver-class-name=org.h2.Driver");
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.datasource.password=");
+        command.add("--jwt.secret=b4acbff9e2c9437b943d8e86a932482be73c91a5c497021e1ea64c153b893f41");
+        command.addAll(appArgs);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(WORK.resolve(mode + "-" + label + ".log").toFile())
+                .start();
+    }
+
+    // The application classes as a jar, followed by the dependency jars; test classes stay out.
+    private static String classpath() throws Exception {
+        Path classes = Paths.get(HealthcareAppointmentApiApplication.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Path jar = WORK.resolve("application.jar").toAbsolutePath();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> files = Files.walk(classes)) {
+            // Directory entries too: classpath*: lookups such as Flyway's under AOT find nothing without them.
+            for (Path file : files.filter(path -> !path.equals(classes)).toList()) {
+                String name = classes.relativize(file).toString().replace(File.separatorChar, '/');
+                boolean directory = Files.isDirectory(file);
+                out.putNextEntry(new JarEntry(directory ? name + "/" : name));
+                if (!directory) {
+                    Files.copy(file, (OutputStream) out);
+                }
+                out.closeEntry();
+            }
+        }
+        List<String> entries = new ArrayList<>();
+        entries.add(jar.toString());
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (!entry.isEmpty() && !Files.isDirectory(Paths.get(entry))) {
+                entries.add(entry);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static void report(String mode, long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-20s first request after  min %6d ms  median %6d ms  max %6d ms%n",
+                mode, sorted[0], sorted[sorted.length / 2], sorted[sorted.length - 1]);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static boolean isPresent(String className) {
+        try {
+            Class.forName(className, false, StartupBenchmarkTest.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.healthcare_appointment_api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the application twice, once on Tomcat platform threads and once with
+ * spring.threads.virtual.enabled, and drives GET and POST /api/appointments over HTTP with many
+ * concurrent clients. Every JDBC statement and commit is delayed by a simulated database round
+ * trip so the request threads, not the in-memory database, become the constraint.
+ * Run with {@code mvn test -Pbenchmark -Dtest=VirtualThreadBenchmarkTest} (add {@code -Pjava21} on
+ * a Java 21 JDK for the virtual-thread half). The bench.* system properties tune the load.
+ */
+@Tag("benchmark")
+class VirtualThreadBenchmarkTest {
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 400);
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 6_000);
+    private static final int TOMCAT_THREADS = Integer.getInteger("bench.tomcat-threads", 50);
+    private static final long DB_LATENCY_MICROS = Long.getLong("bench.db-latency-micros", 2_000);
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 7, 0, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newFixedThreadPool(8))
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void comparesPlatformAndVirtualThreadRequestHandling() throws Exception {
+        System.out.printf("concurrency %d, %d requests per phase, %d Tomcat threads, %d us per DB round trip%n",
+                CONCURRENCY, REQUESTS, TOMCAT_THREADS, DB_LATENCY_MICROS);
+        runMode(false);
+        if (Runtime.version().feature() < 21) {
+            System.out.println("virtual: skipped, needs a Java 21 runtime (build with -Pjava21)");
+            return;
+        }
+        runMode(true);
+    }
+
+    private void runMode(boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = start(virtual)) {
+            String mode = Threading.VIRTUAL.isActive(context.getEnvironment()) ? "virtual" : "platform";
+            assertEquals(virtual ? "virtual" : "platform", mode);
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            String doctorToken = token(base, "/api/auth/register",
+                    "{\"username\":\"doc\",\"password\":\"pw\",\"roles\":[\"DOCTOR\"]}");
+            send(base, "POST", "/api/doctors", doctorToken,
+                    "{\"name\":\"Dr. Bench\",\"specialty\":\"General\",\"contact\":\"x\"}");
+            String patientToken = token(base, "/api/auth/register",
+                    "{\"username\":\"pat\",\"password\":\"pw\",\"roles\":[\"PATIENT\"]}");
+            long doctorId = objectMapper.readTree(send(base, "GET", "/api/doctors", patientToken, null).body())
+                    .get(0).get("id").asLong();
+
+            report(mode, "POST /api/appointments", load(i -> HttpRequest.newBuilder(URI.create(base + "/api/appointments"))
+                    .header("Authorization", "Bearer " + patientToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"doctor\":{\"id\":" + doctorId
+                            + "},\"appointmentTime\":\"" + FIRST_SLOT.plusMinutes(30L * i) + "\"}"))
+                    .build()));
+            report(mode, "GET /api/appointments", load(i -> HttpRequest.newBuilder(
+                            URI.create(base + "/api/appointments?limit=20"))
+                    .header("Authorization", "Bearer " + patientToken)
+                    .GET()
+                    .build()));
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtual) {
+        return new SpringApplicationBuilder(HealthcareAppointmentApiApplication.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource ? withLatency(dataSource, DataSource.class) : bean;
+                    }
+                }))
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--server.tomcat.max-connections=" + (CONCURRENCY * 2),
+                        "--server.tomcat.accept-count=" + CONCURRENCY,
+                        "--spring.datasource.url=jdbc:h2:mem:bench-" + virtual + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.hikari.maximum-pool-size=" + CONCURRENCY,
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.open-in-view=false",
+                        "--spring.sql.init.mode=never",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework=WARN",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.example.healthcare_appointment_api=WARN",
+                        "--jwt.secret=b4acbff9e2c9437b943d8e86a932482be73c91a5c497021e1ea64c153b893f41",
+                        "--jwt.expiration=3600000");
+    }
+
+    private long[] load(IntFunction<HttpRequest> requests) throws Exception {
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        long start = System.nanoTime();
+        for (int c = 0; c < CONCURRENCY; c++) {
+            clients.submit(() -> {
+                for (int i = next.getAndIncrement(); i < REQUESTS; i = next.getAndIncrement()) {
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(requests.apply(i), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - begin;
+                }
+            });
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(10, TimeUnit.MINUTES));
+        long elapsed = System.nanoTime() - start;
+        assertEquals(0, failures.get(), "failed requests");
+        long[] result = Arrays.copyOf(latencies, REQUESTS + 1);
+        result[REQUESTS] = elapsed;
+        return result;
+    }
+
+    private static void report(String mode, String endpoint, long[] latenciesAndElapsed) {
+        long elapsed = latenciesAndElapsed[REQUESTS];
+        long[] latencies = Arrays.copyOf(latenciesAndElapsed, REQUESTS);
+        Arrays.sort(latencies);
+        System.out.printf("%-8s %-24s %8.0f req/s  p50 %7.1f ms  p99 %7.1f ms%n", mode, endpoint,
+                REQUESTS / (elapsed / 1e9), percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private String token(String base, String path, String body) throws Exception {
+        JsonNode response = objectMapper.readTree(send(base, "POST", path, null, body).body());
+        return response.get("token").asText();
+    }
+
+    private HttpResponse<String> send(String base, String method, String path, String token, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), method + " " + path + ": " + response.body());
+        return response;
+    }
+
+    // Wraps JDBC objects so every statement execution and commit costs one simulated round trip.
+    @SuppressWarnings("unchecked")
+    private static <T> T withLatency(T target, Class<?> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute") || method.getName().equals("commit")) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(DB_LATENCY_MICROS));
+            }
+            Object result = invoke(target, method, args);
+            Class<?> returned = method.getReturnType();
+            if (result != null && (returned == Connection.class || Statement.class.isAssignableFrom(returned))) {
+                return withLatency(result, returned);
+            }
+            return result;
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.healthcare_appointment_api.config;
+
+import com.example.healthcare_appointment_api.dto.DoctorView;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import com.example.healthcare_appointment_api.service.DoctorService;
+import com.example.healthcare_appointment_api.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "entity-cache.max-entries=5")
+class EntityCacheConfigTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorService doctorService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private final List<User> users = new ArrayList<>();
+    private final List<Doctor> doctors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // The regions are bounded at 5 here; leftovers from another test could crowd out new entries.
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        doctorRepository.deleteAll(doctors);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void warmLookupsDoNotReachTheDatabase() {
+        User user = user("cache-doctor");
+        Doctor doctor = doctor(user, "Dr. Cache");
+        lookUp(user, doctor);
+
+        statistics.clear();
+        lookUp(user, doctor);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 3, "doctor, user and roles");
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests").tag("region", EntityCacheConfig.DOCTOR_REGION)
+                .tag("result", "hit").functionCounter().count() >= 1);
+    }
+
+    @Test
+    void profileChangesAreWrittenThrough() {
+        User user = user("cache-owner");
+        authenticate(user);
+        assertEquals(Optional.empty(), doctorRepository.findIdByUserId(user.getId()));
+
+        Doctor profile = new Doctor();
+        profile.setName("Dr. Before");
+        profile.setSpecialty("General");
+        DoctorView created = doctorService.createDoctorProfile(profile);
+        doctors.add(doctorRepository.findById(created.getId()).orElseThrow());
+        // The insert invalidated the cached "not a doctor" answer.
+        assertEquals(Optional.of(created.getId()), doctorRepository.findIdByUserId(user.getId()));
+
+        Doctor update = new Doctor();
+        update.setName("Dr. After");
+        update.setSpecialty("Cardiology");
+        doctorService.updateDoctorProfile(created.getId(), update);
+
+        statistics.clear();
+        Doctor cached = doctorRepository.findById(created.getId()).orElseThrow();
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals("Dr. After", cached.getName());
+        assertEquals("Cardiology", cached.getSpecialty());
+    }
+
+    @Test
+    void registeredUsernamesAreCachedOnCommit() {
+        User registration = new User();
+        registration.setUsername("cache-registered");
+        registration.setPassword("secret");
+        userService.register(registration);
+        users.add(registration);
+
+        statistics.clear();
+        User user = userRepository.findByUsername("cache-registered").orElseThrow();
+        // IDENTITY inserts skip the entity cache, so only the first load of the row reads it.
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(Set.of("ROLE_PATIENT"), user.getRoles());
+
+        statistics.clear();
+        userRepository.findByUsername("cache-registered").orElseThrow();
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void regionsAreBoundedAndCountEvictions() throws InterruptedException {
+        for (int i = 0; i < 20; i++) {
+            user("cache-bulk-" + i);
+        }
+        // Caffeine evicts in the background, just after the writes that overflow the bound.
+        double evictions = 0;
+        for (int attempt = 0; attempt < 100 && evictions == 0; attempt++) {
+            Thread.sleep(20);
+            evictions = meterRegistry.get("cache.evictions").tag("cache", EntityCacheConfig.USER_NATURAL_ID_REGION)
+                    .functionCounter().count();
+        }
+        assertTrue(evictions > 0, "natural-id region should have evicted past 5 entries");
+    }
+
+    private void lookUp(User user, Doctor doctor) {
+        assertEquals(user.getId(), userRepository.findByUsername(user.getUsername()).orElseThrow().getId());
+        assertEquals(Optional.of(doctor.getId()), doctorRepository.findIdByUserId(user.getId()));
+        assertEquals(user.getUsername(), doctorRepository.findById(doctor.getId()).orElseThrow().getUser().getUsername());
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRoles(Set.of("ROLE_DOCTOR"));
+        users.add(userRepository.save(user));
+        return user;
+    }
+
+    private Doctor doctor(User user, String name) {
+        Doctor doctor = new Doctor();
+        doctor.setName(name);
+        doctor.setSpecialty("General");
+        doctor.setUser(user);
+        doctors.add(doctorRepository.save(doctor));
+        return doctor;
+    }
+
+    private static void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(user.getId(), user.getUsername(), "DOCTOR", 0L, Long.MAX_VALUE), null, List.of()));
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.healthcare_appointment_api.config;
+
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaRoutingDataSourceTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaRoutingDataSource router;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        router = new ReplicaRoutingDataSource(primary, replica, 60_000, meterRegistry);
+        router.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(router);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", readOnly.execute(status -> whichDatabase()));
+        assertEquals("primary", readWrite.execute(status -> whichDatabase()));
+        assertEquals(1.0, routed("replica", "read"));
+    }
+
+    @Test
+    void aUsersOwnWriteIsReadBackFromThePrimary() {
+        authenticate(5L);
+        readWrite.executeWithoutResult(status -> jdbc.update("INSERT INTO marker (name) VALUES ('written')"));
+
+        assertEquals("primary", readOnly.execute(status -> whichDatabase()));
+        assertEquals(1.0, routed("primary", "read_your_writes"));
+
+        authenticate(6L);
+        assertEquals("replica", readOnly.execute(status -> whichDatabase()));
+    }
+
+    @Test
+    void registerThenLoginReadsTheNewUserFromThePrimary() {
+        // Registration is anonymous, so the router cannot attribute the write by itself.
+        readWrite.executeWithoutResult(status -> jdbc.update("INSERT INTO marker (name) VALUES ('registered')"));
+        assertEquals("replica", readOnly.execute(status -> whichDatabase()));
+        router.recordWrite(9L);
+
+        // Login's user lookup runs read-write, as UserRepository.findByUsernameOnPrimary does.
+        assertEquals("primary", readWrite.execute(status -> whichDatabase()));
+        authenticate(9L);
+        assertEquals("primary", readOnly.execute(status -> whichDatabase()));
+        assertEquals(1.0, routed("primary", "read_your_writes"));
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinTheUserToThePrimary() {
+        authenticate(5L);
+        readWrite.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO marker (name) VALUES ('written')");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnly.execute(status -> whichDatabase()));
+    }
+
+    @Test
+    void lagMonitorSendsReadsToThePrimaryUntilTheReplicaCatchesUp() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, replica, router, 1_000, meterRegistry);
+        monitor.init();
+
+        // Nothing replicates between the two embedded databases, so the replica has no heartbeat yet.
+        assertTrue(router.isReplicaLagging());
+        assertEquals("primary", readOnly.execute(status -> whichDatabase()));
+        assertEquals(1.0, routed("primary", "replica_lagging"));
+
+        replicate("replica_heartbeat", "CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        monitor.check();
+        assertFalse(router.isReplicaLagging());
+        assertTrue(monitor.getLagMillis() >= 0 && monitor.getLagMillis() < 1_000);
+        assertEquals("replica", readOnly.execute(status -> whichDatabase()));
+
+        new JdbcTemplate(replica).update("UPDATE replica_heartbeat SET beat_at = beat_at - 5000");
+        monitor.check();
+        assertTrue(router.isReplicaLagging());
+        assertEquals(1.0, meterRegistry.get("datasource.replica.lagging").gauge().value());
+    }
+
+    private String whichDatabase() {
+        return jdbc.queryForObject("SELECT name FROM marker WHERE id = 1", String.class);
+    }
+
+    // Copies a table from the primary to the replica, standing in for replication.
+    private void replicate(String table, String ddl) {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute(ddl);
+        List<Long> beats = new JdbcTemplate(primary).queryForList("SELECT beat_at FROM " + table, Long.class);
+        beats.forEach(beat -> replicaJdbc.update("INSERT INTO " + table + " (id, beat_at) VALUES (1, ?)", beat));
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get("datasource.routing").tag("target", target).tag("reason", reason).counter().count();
+    }
+
+    private static void authenticate(long userId) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(userId, "user" + userId, "PATIENT", 0L, Long.MAX_VALUE), null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE marker (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(20))");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
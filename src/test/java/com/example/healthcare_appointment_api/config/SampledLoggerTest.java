@@ -0,0 +1,72 @@
+package com.example.healthcare_appointment_api.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SampledLoggerTest {
+
+    @Test
+    void writesOneLinePerIntervalAndCountsTheRest() throws Exception {
+        List<String> lines = new ArrayList<>();
+        Logger logger = capture(lines);
+        SampledLogger sampled = new SampledLogger(logger, 50, TimeUnit.MILLISECONDS);
+        AtomicInteger detailCalls = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            sampled.log(Level.WARNING, "token_rejected", () -> "call=" + detailCalls.incrementAndGet());
+        }
+        Thread.sleep(60);
+        sampled.log(Level.WARNING, "token_rejected", () -> "call=" + detailCalls.incrementAndGet());
+        sampled.log(Level.WARNING, "token_invalid", () -> "reason=expired");
+
+        assertEquals(List.of(
+                "event=token_rejected call=1",
+                "event=token_rejected call=2 suppressed=99",
+                "event=token_invalid reason=expired"), lines);
+        assertEquals(2, detailCalls.get());
+    }
+
+    @Test
+    void skipsEverythingWhenTheLevelIsDisabled() {
+        List<String> lines = new ArrayList<>();
+        Logger logger = capture(lines);
+        logger.setLevel(Level.SEVERE);
+        SampledLogger sampled = new SampledLogger(logger, 0, TimeUnit.MILLISECONDS);
+
+        sampled.log(Level.WARNING, "token_rejected", () -> {
+            throw new AssertionError("details must not be built");
+        });
+
+        assertEquals(0, lines.size());
+    }
+
+    private static Logger capture(List<String> lines) {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                lines.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        return logger;
+    }
+}
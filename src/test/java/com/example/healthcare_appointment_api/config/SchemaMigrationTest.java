@@ -0,0 +1,63 @@
+package com.example.healthcare_appointment_api.config;
+
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Boots the fast-start profile on H2; ddl-auto=validate fails the context if an entity and the migrations disagree.
+@SpringBootTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true"
+})
+@ActiveProfiles("fast-start")
+class SchemaMigrationTest {
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Test
+    void migrationsMatchTheEntities() {
+        assertEquals("1", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+
+        User user = new User();
+        user.setUsername("migrated");
+        user.setPassword("x");
+        user.setRoles(Set.of("ROLE_DOCTOR"));
+        userRepository.save(user);
+        Doctor doctor = new Doctor();
+        doctor.setName("Dr. Migrated");
+        doctor.setUser(user);
+        doctorRepository.save(doctor);
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(user);
+        appointment.setAppointmentTime(LocalDateTime.of(2033, 1, 3, 9, 0));
+        appointment.setStatus("PENDING");
+        assertNotNull(appointmentRepository.save(appointment).getId());
+
+        appointmentRepository.deleteAllInBatch();
+        doctorRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+}
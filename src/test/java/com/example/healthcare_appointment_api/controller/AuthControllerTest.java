@@ -0,0 +1,52 @@
+package com.example.healthcare_appointment_api.controller;
+
+import com.example.healthcare_appointment_api.dto.AuthResponse;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.security.InvalidRefreshTokenException;
+import com.example.healthcare_appointment_api.service.InvalidRegistrationException;
+import com.example.healthcare_appointment_api.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthControllerTest {
+    private final UserService userService = mock(UserService.class);
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new AuthController(userService)).build();
+
+    @Test
+    void refreshRotatesAValidToken() throws Exception {
+        when(userService.refresh("good")).thenReturn(new AuthResponse("access", "next", 900));
+
+        mvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON).content("{\"refreshToken\":\"good\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.refreshToken").value("next"));
+    }
+
+    @Test
+    void anInvalidRefreshTokenIsUnauthorized() throws Exception {
+        when(userService.refresh("reused")).thenThrow(new InvalidRefreshTokenException("Invalid or expired refresh token"));
+
+        mvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON).content("{\"refreshToken\":\"reused\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().string("Invalid or expired refresh token"));
+    }
+
+    @Test
+    void registeringAsAdminIsABadRequest() throws Exception {
+        when(userService.register(any(User.class))).thenThrow(new InvalidRegistrationException("Role not allowed for registration: ADMIN"));
+
+        mvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"mallory\",\"password\":\"pw\",\"roles\":[\"ADMIN\"]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Role not allowed for registration: ADMIN"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.healthcare_appointment_api.controller;
+
+import com.example.healthcare_appointment_api.config.WireFormatConfig;
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Payload size and serialization time for one large appointment list, encoded the way the API
+ * used to (entities with their patient and doctor graphs) and the ways it can now: views as JSON,
+ * a ?fields= subset, CBOR and Smile. Mappers are configured like the application's.
+ * Run with {@code mvn test -Pbenchmark -Dtest=WireFormatBenchmarkTest -Dwire.appointments=50000}.
+ */
+@Tag("benchmark")
+class WireFormatBenchmarkTest {
+    private static final int APPOINTMENTS = Integer.getInteger("wire.appointments", 10_000);
+    private static final int WARMUP = 20;
+    private static final int ROUNDS = 30;
+
+    @Test
+    void compareEncodings() throws Exception {
+        List<Appointment> entities = entities();
+        List<AppointmentView> views = entities.stream().map(WireFormatBenchmarkTest::toView).toList();
+        ObjectWriter json = mapper(null).writer();
+        SimpleFilterProvider subset = new SimpleFilterProvider().addFilter(WireFormatConfig.FIELDS_FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept("id", "appointmentTime", "status", "doctorName"));
+
+        System.out.printf("%d appointments%n%-22s %12s %8s %12s%n", APPOINTMENTS, "encoding", "bytes", "vs.", "p50 ms");
+        long baseline = report("entities, JSON", json, entities, 0);
+        long viewBytes = report("views, JSON", json, views, baseline);
+        long subsetBytes = report("views, fields=4, JSON", json.with(subset), views, baseline);
+        long cborBytes = report("views, CBOR", mapper(new CBORFactory()).writer(), views, baseline);
+        long smileBytes = report("views, Smile", mapper(new SmileFactory()).writer(), views, baseline);
+        report("views, fields=4, Smile", mapper(new SmileFactory()).writer().with(subset), views, baseline);
+
+        assertTrue(viewBytes < baseline);
+        assertTrue(subsetBytes < viewBytes);
+        assertTrue(cborBytes < viewBytes && smileBytes < viewBytes);
+    }
+
+    private static long report(String name, ObjectWriter writer, Object value, long baseline) throws Exception {
+        long[] nanos = new long[ROUNDS];
+        int bytes = 0;
+        for (int i = 0; i < WARMUP + ROUNDS; i++) {
+            long start = System.nanoTime();
+            bytes = writer.writeValueAsBytes(value).length;
+            if (i >= WARMUP) {
+                nanos[i - WARMUP] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-22s %12d %7.0f%% %12.2f%n", name, bytes,
+                baseline == 0 ? 100.0 : 100.0 * bytes / baseline, nanos[ROUNDS / 2] / 1e6);
+        return bytes;
+    }
+
+    // Same settings as the application's mappers: ISO dates, the fields filter on the views.
+    private static ObjectMapper mapper(JsonFactory factory) {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        new WireFormatConfig().fieldsFilterCustomizer().customize(builder);
+        if (factory != null) {
+            builder.factory(factory);
+        }
+        return builder.build();
+    }
+
+    private static List<Appointment> entities() {
+        List<Doctor> doctors = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setId((long) i + 1);
+            doctor.setName("Dr. Doctor " + i);
+            doctor.setSpecialty(i % 2 == 0 ? "Cardiology" : "General Practice");
+            doctor.setContact("+1-555-01" + String.format("%02d", i % 100));
+            doctor.setUser(user(100_000L + i, "doctor" + i, "ROLE_DOCTOR"));
+            doctors.add(doctor);
+        }
+        List<User> patients = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            patients.add(user(i + 1L, "patient" + i, "ROLE_PATIENT"));
+        }
+        LocalDateTime first = LocalDateTime.of(2030, 1, 7, 9, 0);
+        List<Appointment> appointments = new ArrayList<>(APPOINTMENTS);
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setId((long) i + 1);
+            appointment.setDoctor(doctors.get(i % doctors.size()));
+            appointment.setPatient(patients.get(i % patients.size()));
+            appointment.setAppointmentTime(first.plusMinutes(30L * i));
+            appointment.setStatus("PENDING");
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+
+    private static User user(long id, String username, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword("$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy");
+        user.setRoles(Set.of(role));
+        return user;
+    }
+
+    private static AppointmentView toView(Appointment appointment) {
+        return new AppointmentView(appointment.getId(), appointment.getAppointmentTime(), appointment.getStatus(),
+                appointment.getDoctor().getId(), appointment.getDoctor().getName(), appointment.getDoctor().getSpecialty(),
+                appointment.getPatient().getId(), appointment.getPatient().getUsername());
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.healthcare_appointment_api.controller;
+
+import com.example.healthcare_appointment_api.dto.DoctorView;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import com.example.healthcare_appointment_api.security.JwtUtil;
+import com.example.healthcare_appointment_api.service.DoctorService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WireFormatTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper json = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorService doctorService;
+
+    private User patient;
+    private User doctorUser;
+    private DoctorView doctor;
+    private String patientToken;
+
+    @BeforeEach
+    void setUp() {
+        patient = user("wire-patient", "ROLE_PATIENT");
+        doctorUser = user("wire-doctor", "ROLE_DOCTOR");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(doctorUser.getId(), doctorUser.getUsername(), "DOCTOR", 0L, Long.MAX_VALUE), null, List.of()));
+        Doctor profile = new Doctor();
+        profile.setName("Dr. Wire");
+        profile.setSpecialty("Cardiology");
+        profile.setContact("555-0100");
+        doctor = doctorService.createDoctorProfile(profile);
+        SecurityContextHolder.clearContext();
+        patientToken = jwtUtil.generateToken(patient.getId(), patient.getUsername(), "PATIENT");
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAllInBatch();
+        doctorRepository.deleteById(doctor.getId());
+        userRepository.deleteAll(List.of(patient, doctorUser));
+    }
+
+    @Test
+    void fieldsNarrowEachViewButKeepThePageWrapper() throws Exception {
+        HttpResponse<String> booked = send(HttpRequest.newBuilder(url("/api/appointments"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"doctor\":{\"id\":" + doctor.getId() + "},\"appointmentTime\":\"2031-03-03T09:00:00\"}")));
+        assertEquals(200, booked.statusCode());
+        JsonNode appointment = json.readTree(booked.body());
+        assertEquals("wire-patient", appointment.get("patientUsername").asText());
+        assertFalse(booked.body().contains("password"), booked.body());
+
+        HttpResponse<String> page = send(HttpRequest.newBuilder(url("/api/appointments?fields=id,status")));
+        JsonNode body = json.readTree(page.body());
+        assertTrue(body.has("nextCursor"));
+        JsonNode item = body.get("items").get(0);
+        assertEquals(List.of("id", "status"), fieldNames(item));
+        assertEquals("PENDING", item.get("status").asText());
+    }
+
+    @Test
+    void doctorListingsHonourFieldsAndTheirValidators() throws Exception {
+        HttpResponse<String> full = send(HttpRequest.newBuilder(url("/api/doctors/" + doctor.getId())));
+        HttpResponse<String> narrowed = send(HttpRequest.newBuilder(url("/api/doctors/" + doctor.getId() + "?fields=id,name")));
+
+        assertEquals(List.of("id", "name", "specialty", "contact", "userId"), fieldNames(json.readTree(full.body())));
+        assertEquals(List.of("id", "name"), fieldNames(json.readTree(narrowed.body())));
+        assertEquals(full.headers().firstValue("ETag"), narrowed.headers().firstValue("ETag"));
+
+        // The directory drops doctors deleted by earlier tests only on its next refresh.
+        JsonNode list = json.readTree(send(HttpRequest.newBuilder(url("/api/doctors?specialty=cardiology&fields=name"))).body());
+        assertFalse(list.isEmpty());
+        list.forEach(entry -> assertEquals(List.of("name"), fieldNames(entry)));
+    }
+
+    @Test
+    void binaryFormatsCarryTheSameContentWithTheirOwnEtag() throws Exception {
+        HttpResponse<String> jsonResponse = send(HttpRequest.newBuilder(url("/api/doctors")));
+        JsonNode expected = json.readTree(jsonResponse.body());
+        String jsonEtag = jsonResponse.headers().firstValue("ETag").orElseThrow();
+
+        for (String format : List.of("application/cbor", "application/x-jackson-smile")) {
+            HttpResponse<byte[]> binary = client.send(authorized(HttpRequest.newBuilder(url("/api/doctors")))
+                    .header("Accept", format).build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, binary.statusCode());
+            assertEquals(format, binary.headers().firstValue("Content-Type").orElseThrow());
+            ObjectMapper decoder = new ObjectMapper(format.endsWith("cbor") ? new CBORFactory() : new SmileFactory());
+            assertEquals(expected, decoder.readTree(binary.body()));
+
+            String etag = binary.headers().firstValue("ETag").orElseThrow();
+            assertNotEquals(jsonEtag, etag);
+            HttpResponse<byte[]> revalidated = client.send(authorized(HttpRequest.newBuilder(url("/api/doctors")))
+                    .header("Accept", format).header("If-None-Match", etag).build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(304, revalidated.statusCode());
+        }
+    }
+
+    @Test
+    void userListingLeavesOutCredentials() throws Exception {
+        HttpResponse<String> users = send(HttpRequest.newBuilder(url("/api/users")));
+
+        assertEquals(200, users.statusCode());
+        assertFalse(users.body().contains("password"), users.body());
+        assertTrue(users.body().contains("\"roles\":[\"ROLE_PATIENT\"]"), users.body());
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(authorized(request).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder request) {
+        return request.header("Authorization", "Bearer " + patientToken);
+    }
+
+    private URI url(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRoles(Set.of(role));
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.healthcare_appointment_api.security;
+
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsImmediatelyOnceThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(started, release), 1, 1, 10_000, meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (encoder.getQueueSize() == 0) {
+            Thread.onSpinWait();
+        }
+
+        long start = System.nanoTime();
+        PasswordHashingBusyException busy = assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("c"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        release.countDown();
+        assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, busy.getRetryAfterSeconds());
+        assertTrue(elapsedMillis < 100, "rejection took " + elapsedMillis + " ms");
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+    }
+
+    @Test
+    void givesUpWhenTheQueueWaitExceedsTheLimit() {
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(new CountDownLatch(1), release), 1, 4, 50, meterRegistry);
+
+        try {
+            assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("a"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void recordsHashLatency() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 5_000, meterRegistry);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hashing.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void loginRehashesPasswordsStoredWithALowerCost() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 4, 5_000, meterRegistry);
+        User user = new User();
+        user.setUsername("pat");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+        user.setRoles(Set.of("ROLE_PATIENT"));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsernameOnPrimary("pat")).thenReturn(Optional.of(user));
+        when(userRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository,
+                new TokenRevocationList(userRepository, 60_000, 1 << 12));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("pat", "secret"));
+
+        verify(userRepository).save(user);
+        assertTrue(user.getPassword().startsWith("$2a$05$"), user.getPassword());
+        assertTrue(encoder.matches("secret", user.getPassword()));
+    }
+
+    private static final class BlockingEncoder implements PasswordEncoder {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        private BlockingEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
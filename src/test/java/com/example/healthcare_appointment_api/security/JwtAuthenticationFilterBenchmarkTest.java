@@ -0,0 +1,105 @@
+package com.example.healthcare_appointment_api.security;
+
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Base64;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("benchmark")
+class JwtAuthenticationFilterBenchmarkTest {
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 50_000;
+
+    @Test
+    void perRequestCostOfTheAuthFilter() throws Exception {
+        UserRepository userRepository = mock(UserRepository.class);
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("patient1");
+        user.setPassword("{noop}secret");
+        when(userRepository.findByUsernameOnPrimary(anyString())).thenReturn(Optional.of(user));
+
+        JwtUtil uncached = JwtUtilTest.jwtUtil(3_600_000, 0);
+        JwtUtil cached = JwtUtilTest.jwtUtil(3_600_000, 10_000);
+        String token = cached.generateToken(1L, "patient1", "PATIENT");
+
+        // keep per-request log lines out of the measurement
+        Logger.getLogger(JwtAuthenticationFilter.class.getName()).setLevel(Level.WARNING);
+        Logger.getLogger(JwtUtil.class.getName()).setLevel(Level.WARNING);
+
+        double legacyToken = measure(() -> legacyParse(token));
+        double singleToken = measure(() -> assertNotNull(uncached.verifyToken(token)));
+        double cachedToken = measure(() -> assertNotNull(cached.verifyToken(token)));
+        TokenRevocationList revocationList = new TokenRevocationList(userRepository, 3_600_000, 1 << 16);
+        JwtAuthenticationFilter uncachedFilter = new JwtAuthenticationFilter(uncached, userRepository, revocationList, false, new SimpleMeterRegistry());
+        JwtAuthenticationFilter cachedFilter = new JwtAuthenticationFilter(cached, userRepository, revocationList, false, new SimpleMeterRegistry());
+        JwtAuthenticationFilter statelessFilter = new JwtAuthenticationFilter(cached, userRepository, revocationList, true, new SimpleMeterRegistry());
+        double filterBaseline = measure(() -> runFilter(uncachedFilter, token));
+        double filterCached = measure(() -> runFilter(cachedFilter, token));
+        double filterStateless = measure(() -> runFilter(statelessFilter, token));
+
+        System.out.printf("token: three parses, key rebuilt each time: %8.0f ns/request%n", legacyToken);
+        System.out.printf("token: verifyToken, single parse:           %8.0f ns/request%n", singleToken);
+        System.out.printf("token: verifyToken, cache hit:              %8.0f ns/request%n", cachedToken);
+        System.out.printf("filter before (three parses):               %8.0f ns/request%n",
+                filterBaseline - singleToken + legacyToken);
+        System.out.printf("filter, single parse:                       %8.0f ns/request%n", filterBaseline);
+        System.out.printf("filter, cache hit:                          %8.0f ns/request%n", filterCached);
+        System.out.printf("filter, cache hit, stateless:               %8.0f ns/request%n", filterStateless);
+    }
+
+    private static void runFilter(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    // What the filter did before: validateToken, getUsernameFromToken and getRoleFromToken,
+    // each decoding the secret and verifying the signature again.
+    private static void legacyParse(String token) {
+        for (int i = 0; i < 3; i++) {
+            Claims claims = Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(JwtUtilTest.SECRET)))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+            assertNotNull(claims.getSubject());
+        }
+    }
+
+    private static double measure(ThrowingRunnable body) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            body.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            body.run();
+        }
+        return (System.nanoTime() - start) / (double) ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.healthcare_appointment_api.security;
+
+import com.example.healthcare_appointment_api.dto.RevokedUser;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+    private final JwtUtil jwtUtil = JwtUtilTest.jwtUtil(60_000, 100);
+    private UserRepository userRepository;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findRevokedSince(any())).thenReturn(List.of());
+        revocationList = new TokenRevocationList(userRepository, 60_000, 1 << 12);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessModeAuthenticatesFromClaimsAlone() throws Exception {
+        Authentication auth = filter(true, jwtUtil.generateToken(7L, "patient1", "PATIENT"));
+
+        assertNotNull(auth);
+        JwtPrincipal principal = (JwtPrincipal) auth.getPrincipal();
+        assertEquals(7L, principal.getUserId());
+        assertEquals("patient1", auth.getName());
+        assertEquals("ROLE_PATIENT", auth.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void statelessModeRejectsRevokedUsers() throws Exception {
+        String token = jwtUtil.generateToken(7L, "patient1", "PATIENT");
+        revocationList.revoke("patient1", Instant.now().plusSeconds(1), false);
+
+        assertNull(filter(true, token));
+        assertNotNull(filter(true, jwtUtil.generateToken(8L, "patient2", "PATIENT")));
+    }
+
+    @Test
+    void logoutOrdersTokensToTheMillisecond() throws Exception {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("patient1");
+        when(userRepository.findByUsernameOnPrimary("patient1")).thenReturn(Optional.of(user));
+        String before = jwtUtil.generateToken(7L, "patient1", "PATIENT");
+        Thread.sleep(2);
+        Instant loggedOut = Instant.now();
+        revocationList.revoke("patient1", loggedOut, false);
+        user.setTokensRevokedAt(loggedOut);
+        Thread.sleep(2);
+        String after = jwtUtil.generateToken(7L, "patient1", "PATIENT");
+
+        // Both tokens usually share an iat second with the logout; only the one issued before it is dead.
+        assertNull(filter(true, before));
+        assertNull(filter(false, before));
+        assertNotNull(filter(true, after));
+        assertNotNull(filter(false, after));
+    }
+
+    @Test
+    void revocationListPicksUpChangesIncrementally() throws Exception {
+        String token = jwtUtil.generateToken(7L, "patient1", "PATIENT");
+        when(userRepository.findRevokedSince(any()))
+                .thenReturn(List.of(new RevokedUser("patient1", Instant.now(), true)));
+
+        revocationList.refresh();
+
+        assertNull(filter(true, token));
+        assertEquals(1, revocationList.size());
+    }
+
+    @Test
+    void defaultModeChecksTheUserTable() throws Exception {
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("patient1");
+        when(userRepository.findByUsernameOnPrimary("patient1")).thenReturn(Optional.of(user));
+        String token = jwtUtil.generateToken(7L, "patient1", "PATIENT");
+
+        assertEquals(7L, ((JwtPrincipal) filter(false, token).getPrincipal()).getUserId());
+        SecurityContextHolder.clearContext();
+
+        user.setDisabled(true);
+        assertNull(filter(false, token));
+    }
+
+    private Authentication filter(boolean stateless, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments");
+        request.addHeader("Authorization", "Bearer " + token);
+        new JwtAuthenticationFilter(jwtUtil, userRepository, revocationList, stateless, new SimpleMeterRegistry())
+                .doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.healthcare_appointment_api.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+    static final String SECRET = "b4acbff9e2c9437b943d8e86a932482be73c91a5c497021e1ea64c153b893f41";
+
+    static JwtUtil jwtUtil(long expirationMillis, int cacheMaxEntries) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expirationMillis);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", cacheMaxEntries);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Test
+    void verifyTokenReturnsPrincipalFromASingleParse() {
+        JwtUtil jwtUtil = jwtUtil(60_000, 100);
+        String token = jwtUtil.generateToken(7L, "patient1", "patient");
+
+        JwtPrincipal principal = jwtUtil.verifyToken(token);
+
+        assertNotNull(principal);
+        assertEquals(7L, principal.getUserId());
+        assertEquals("patient1", principal.getUsername());
+        assertEquals("PATIENT", principal.getRole());
+        assertTrue(principal.getExpiresAtMillis() > System.currentTimeMillis());
+    }
+
+    @Test
+    void repeatedVerificationIsServedFromCache() {
+        JwtUtil jwtUtil = jwtUtil(60_000, 100);
+        String token = jwtUtil.generateToken(8L, "doctor1", "DOCTOR");
+
+        assertSame(jwtUtil.verifyToken(token), jwtUtil.verifyToken(token));
+    }
+
+    @Test
+    void rejectsTamperedAndExpiredTokens() {
+        JwtUtil jwtUtil = jwtUtil(60_000, 100);
+        String token = jwtUtil.generateToken(7L, "patient1", "PATIENT");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(jwtUtil.verifyToken(tampered));
+        assertNull(jwtUtil.verifyToken("not-a-jwt"));
+
+        JwtUtil expiring = jwtUtil(-1_000, 100);
+        assertNull(expiring.verifyToken(expiring.generateToken(7L, "patient1", "PATIENT")));
+    }
+
+    @Test
+    void cacheStaysWithinItsBound() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(50);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 500; i++) {
+            cache.put(cache.keyFor("token-" + i), new JwtPrincipal((long) i, "user" + i, "PATIENT", now, now + 60_000), now);
+        }
+        assertTrue(cache.size() <= 50);
+
+        cache.put(cache.keyFor("stale"), new JwtPrincipal(0L, "stale", "PATIENT", now - 2, now - 1), now);
+        assertNull(cache.get(cache.keyFor("stale"), now));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.healthcare_appointment_api.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateLimitFilterTest {
+    private static final String[] RULES = {"POST /api/auth/login 2/1m 2", "GET /api/appointments 1/1s 3"};
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = new RateLimitFilter(true, RULES, 100, meterRegistry, now::get);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void loginsAreLimitedPerAddressWithRetryAfter() throws Exception {
+        assertEquals(200, call("POST", "/api/auth/login", "10.0.0.1").getStatus());
+        assertEquals(200, call("POST", "/api/auth/login", "10.0.0.1").getStatus());
+        MockHttpServletResponse refused = call("POST", "/api/auth/login", "10.0.0.1");
+
+        assertEquals(429, refused.getStatus());
+        assertEquals("30", refused.getHeader("Retry-After"));
+        assertEquals(200, call("POST", "/api/auth/login", "10.0.0.2").getStatus());
+        assertEquals(1.0, meterRegistry.counter("rate.limit.rejected", "endpoint", "POST /api/auth/login").count());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertEquals(200, call("POST", "/api/auth/login", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void authenticatedCallsAreLimitedPerUserNotAddress() throws Exception {
+        authenticate("patient1");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, call("GET", "/api/appointments", "10.0.0." + i).getStatus());
+        }
+        assertEquals(429, call("GET", "/api/appointments", "10.0.0.9").getStatus());
+
+        authenticate("patient2");
+        assertEquals(200, call("GET", "/api/appointments", "10.0.0.1").getStatus());
+        // Other methods and paths have no rule.
+        authenticate("patient1");
+        assertEquals(200, call("POST", "/api/appointments", "10.0.0.1").getStatus());
+        assertEquals(200, call("GET", "/api/doctors", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void refilledBucketsAreEvicted() throws Exception {
+        call("POST", "/api/auth/login", "10.0.0.1");
+        authenticate("patient1");
+        call("GET", "/api/appointments", "10.0.0.1");
+        assertEquals(2, filter.size());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        filter.evictIdle();
+        assertEquals(1, filter.size());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        filter.evictIdle();
+        assertEquals(0, filter.size());
+    }
+
+    @Test
+    void clientsBeyondTheCapPassUncounted() throws Exception {
+        RateLimitFilter capped = new RateLimitFilter(true, RULES, 1, meterRegistry, now::get);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call(capped, "POST", "/api/auth/login", "10.0.1." + i).getStatus());
+        }
+        assertEquals(1, capped.size());
+        assertEquals(4.0, meterRegistry.counter("rate.limit.overflow", "endpoint", "POST /api/auth/login").count());
+    }
+
+    @Test
+    void malformedRulesFailAtStartup() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimitFilter(true, new String[]{"GET /api/appointments fast"}, 100, meterRegistry, now::get));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimitFilter(true, new String[]{"GET /api/appointments 5/1d"}, 100, meterRegistry, now::get));
+    }
+
+    private MockHttpServletResponse call(String method, String path, String address) throws Exception {
+        return call(filter, method, path, address);
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, String method, String path, String address)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(1L, username, "PATIENT", 0L, Long.MAX_VALUE), null, List.of()));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.healthcare_appointment_api.security;
+
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class RefreshTokenStoreTest {
+    private TokenRevocationList revocationList;
+    private RefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList(mock(UserRepository.class), 60_000, 1 << 12);
+        store = new RefreshTokenStore(60_000, revocationList);
+    }
+
+    @Test
+    void rotatesToAFreshTokenForTheSameUser() {
+        String token = store.issue(7L, "pat", "PATIENT");
+
+        RefreshTokenStore.Rotation rotation = store.rotate(token);
+
+        assertNotNull(rotation);
+        assertEquals(7L, rotation.getUserId());
+        assertEquals("pat", rotation.getUsername());
+        assertEquals("PATIENT", rotation.getRole());
+        assertNotEquals(token, rotation.getRefreshToken());
+        assertNotNull(store.rotate(rotation.getRefreshToken()));
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        String first = store.issue(7L, "pat", "PATIENT");
+        String second = store.rotate(first).getRefreshToken();
+        String otherLogin = store.issue(7L, "pat", "PATIENT");
+
+        assertNull(store.rotate(first));
+        assertNull(store.rotate(second));
+        assertNotNull(store.rotate(otherLogin));
+    }
+
+    @Test
+    void rejectsTokensIssuedBeforeLogout() throws Exception {
+        String token = store.issue(7L, "pat", "PATIENT");
+        Thread.sleep(2);
+        revocationList.revoke("pat", Instant.now(), false);
+
+        assertNull(store.rotate(token));
+    }
+
+    @Test
+    void rejectsUnknownAndExpiredTokens() {
+        RefreshTokenStore shortLived = new RefreshTokenStore(0, revocationList);
+        String token = shortLived.issue(7L, "pat", "PATIENT");
+
+        assertNull(store.rotate("not-a-token"));
+        assertNull(shortLived.rotate(token));
+        shortLived.pruneExpired();
+        assertEquals(0, shortLived.size());
+    }
+}
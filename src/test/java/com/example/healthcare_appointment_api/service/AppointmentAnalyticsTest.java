@@ -0,0 +1,162 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.AnalyticsReport;
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "appointment.analytics.report-cache-ms=0")
+class AppointmentAnalyticsTest {
+    private static final LocalDateTime SLOT = LocalDateTime.of(2032, 3, 1, 9, 0);
+    private static final LocalDate DAY = SLOT.toLocalDate();
+
+    @Autowired
+    private AppointmentAnalytics appointmentAnalytics;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Doctor> doctors = new ArrayList<>();
+    private User patient;
+    private User doctorUser;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        patient = user("analytics-patient", "ROLE_PATIENT");
+        doctorUser = user("analytics-doctor", "ROLE_DOCTOR");
+        doctor = new Doctor();
+        doctor.setName("Dr. Analytics");
+        doctor.setSpecialty("Cardiology");
+        doctor.setUser(doctorUser);
+        doctors.add(doctorRepository.save(doctor));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        appointmentRepository.deleteAllInBatch();
+        doctorRepository.deleteAll(doctors);
+        userRepository.deleteAll(users);
+        appointmentAnalytics.rebuild();
+    }
+
+    @Test
+    void rebuildCountsRowsWrittenAroundTheService() {
+        insert(SLOT, "PENDING");
+        insert(SLOT.plusHours(1), "CONFIRMED");
+        insert(SLOT.plusDays(1), "CANCELLED");
+        assertEquals(0, total(appointmentAnalytics.report(DAY, DAY.plusDays(1))));
+
+        appointmentAnalytics.rebuild();
+
+        AnalyticsReport report = appointmentAnalytics.report(DAY, DAY.plusDays(1));
+        assertEquals(Map.of("PENDING", 1L, "CONFIRMED", 1L, "CANCELLED", 1L, "COMPLETED", 0L), report.getTotals());
+        assertEquals(2L, report.getDays().get(0).getCounts().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(1L, report.getDays().get(1).getCounts().get("CANCELLED"));
+        // Cancelled appointments do not take up the doctor's time.
+        assertEquals(1L, report.getByHour().get(9));
+        assertEquals(1L, report.getByHour().get(10));
+        assertEquals(2.0 / (2 * 16), utilization(report), 1e-4);
+    }
+
+    @Test
+    void bookingsAndStatusChangesShowUpWithoutARebuild() {
+        authenticate(patient, "PATIENT");
+        AppointmentView first = book(SLOT);
+        AppointmentView second = book(SLOT.plusHours(2));
+        authenticate(doctorUser, "DOCTOR");
+        appointmentService.changeStatus(List.of(first.getId()), "CONFIRMED");
+        appointmentService.changeStatus(List.of(second.getId()), "CANCELLED");
+
+        AnalyticsReport report = appointmentAnalytics.report(DAY, DAY);
+        assertEquals(Map.of("PENDING", 0L, "CONFIRMED", 1L, "CANCELLED", 1L, "COMPLETED", 0L), report.getTotals());
+        assertEquals(1L, report.getByHour().get(9));
+        assertEquals(0L, report.getByHour().get(11));
+
+        // The live counts already match the table, so reconciling finds nothing to correct.
+        double drift = meterRegistry.counter("appointment.analytics.drift").count();
+        appointmentAnalytics.rebuild();
+        assertEquals(report.getTotals(), appointmentAnalytics.report(DAY, DAY).getTotals());
+        assertEquals(drift, meterRegistry.counter("appointment.analytics.drift").count());
+    }
+
+    @Test
+    void invalidRangesAreRefused() {
+        assertThrows(RuntimeException.class, () -> appointmentAnalytics.report(DAY, DAY.minusDays(1)));
+        assertThrows(RuntimeException.class, () -> appointmentAnalytics.report(DAY, DAY.plusDays(366)));
+    }
+
+    private double utilization(AnalyticsReport report) {
+        return report.getDoctors().stream()
+                .filter(row -> row.getDoctorId().equals(doctor.getId()))
+                .findFirst().orElseThrow().getUtilization();
+    }
+
+    private static long total(AnalyticsReport report) {
+        return report.getTotals().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private AppointmentView book(LocalDateTime time) {
+        Appointment appointment = new Appointment();
+        Doctor reference = new Doctor();
+        reference.setId(doctor.getId());
+        appointment.setDoctor(reference);
+        appointment.setAppointmentTime(time);
+        return appointmentService.bookAppointment(appointment);
+    }
+
+    private void insert(LocalDateTime time, String status) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setAppointmentTime(time);
+        appointment.setStatus(status);
+        appointmentRepository.save(appointment);
+    }
+
+    private User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRoles(Set.of(role));
+        users.add(userRepository.save(user));
+        return user;
+    }
+
+    private static void authenticate(User user, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(user.getId(), user.getUsername(), role, 0L, Long.MAX_VALUE), null, List.of()));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.ArchivedAppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Archives a large backlog with the default batch size and reports rows moved per second, plus
+ * the p50 of the upcoming-appointments page and the booking conflict check before and after.
+ * Run with {@code mvn test -Pbenchmark -Dtest=AppointmentArchiverBenchmarkTest}; archive.past and
+ * archive.upcoming size the data.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "appointment.archive.pause-ms=0")
+class AppointmentArchiverBenchmarkTest {
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+    @Autowired
+    private AppointmentArchiver archiver;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    private User patient;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        patient = new User();
+        patient.setUsername("archive-bench-patient");
+        patient.setPassword("x");
+        patient.setRoles(Set.of("ROLE_PATIENT"));
+        userRepository.save(patient);
+        doctor = new Doctor();
+        doctor.setName("Dr. Archive");
+        doctor.setSpecialty("General");
+        doctorRepository.save(doctor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archivedAppointmentRepository.deleteAllInBatch();
+        appointmentRepository.deleteAllInBatch();
+        doctorRepository.delete(doctor);
+        userRepository.delete(patient);
+    }
+
+    @Test
+    void reportsArchiveThroughputAndHotQueryLatency() {
+        int past = Integer.getInteger("archive.past", 100_000);
+        int upcoming = Integer.getInteger("archive.upcoming", 2_000);
+        book(NOW.minusDays(90 + past / 48 + 1), past);
+        book(NOW.plusDays(1), upcoming);
+        LocalDateTime probe = NOW.plusDays(1).plusMinutes(30L * (upcoming / 2));
+        Supplier<Object> hotPage = () -> appointmentRepository.findDoctorPage(
+                doctor.getId(), NOW, 0L, LocalDateTime.of(9999, 12, 31, 23, 59), null, PageRequest.of(0, 51));
+        Supplier<Object> conflictCheck = () -> appointmentRepository.existsByDoctorAndAppointmentTime(doctor, probe);
+
+        double pageBefore = p50Micros(hotPage);
+        double existsBefore = p50Micros(conflictCheck);
+        long start = System.nanoTime();
+        long moved = archiver.archive();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double pageAfter = p50Micros(hotPage);
+        double existsAfter = p50Micros(conflictCheck);
+
+        System.out.printf("archived %d rows in %.1f s (%.0f rows/s)%n", moved, seconds, moved / seconds);
+        System.out.printf("upcoming page p50: %.0f us -> %.0f us; conflict check p50: %.0f us -> %.0f us%n",
+                pageBefore, pageAfter, existsBefore, existsAfter);
+        assertEquals(past, moved);
+    }
+
+    private void book(LocalDateTime first, int count) {
+        List<Appointment> appointments = new ArrayList<>(Math.min(count, 1_000));
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            appointment.setAppointmentTime(first.plusMinutes(30L * i));
+            appointment.setStatus("PENDING");
+            appointments.add(appointment);
+            slotOccupancyIndex.tryReserve(doctor.getId(), appointment.getAppointmentTime());
+            if (appointments.size() == 1_000 || i == count - 1) {
+                appointmentRepository.saveAll(appointments);
+                appointments.clear();
+            }
+        }
+    }
+
+    private static double p50Micros(Supplier<Object> query) {
+        for (int i = 0; i < 200; i++) {
+            query.get();
+        }
+        long[] samples = new long[500];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2] / 1e3;
+    }
+}
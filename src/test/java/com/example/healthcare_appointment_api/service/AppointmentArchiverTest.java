@@ -0,0 +1,139 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.AppointmentPage;
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.ArchivedAppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "appointment.archive.horizon-days=90",
+        "appointment.archive.batch-size=7",
+        "appointment.archive.pause-ms=0"
+})
+class AppointmentArchiverTest {
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+    @Autowired
+    private AppointmentArchiver archiver;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    private User patient;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        patient = new User();
+        patient.setUsername("archive-patient");
+        patient.setPassword("x");
+        patient.setRoles(Set.of("ROLE_PATIENT"));
+        userRepository.save(patient);
+        doctor = new Doctor();
+        doctor.setName("Dr. Archive");
+        doctor.setSpecialty("General");
+        doctorRepository.save(doctor);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(patient.getId(), patient.getUsername(), "PATIENT", 0L, Long.MAX_VALUE), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        archivedAppointmentRepository.deleteAllInBatch();
+        appointmentRepository.deleteAllInBatch();
+        doctorRepository.delete(doctor);
+        userRepository.delete(patient);
+    }
+
+    @Test
+    void movesAppointmentsPastTheHorizonInBatches() {
+        book(NOW.minusDays(200), 30);
+        book(NOW.plusDays(1), 5);
+
+        assertEquals(30, archiver.archive());
+
+        assertEquals(30, archivedAppointmentRepository.count());
+        assertEquals(5, appointmentRepository.count());
+        assertFalse(slotOccupancyIndex.isBooked(doctor.getId(), NOW.minusDays(200)));
+        assertTrue(slotOccupancyIndex.isBooked(doctor.getId(), NOW.plusDays(1)));
+        assertEquals(0, archiver.archive());
+    }
+
+    @Test
+    void historyPagesReadAcrossBothTables() {
+        book(NOW.minusDays(200), 12);
+        archiver.archive();
+        // Past the horizon but not archived yet: the archive and the hot table overlap in time.
+        book(NOW.minusDays(200).plusMinutes(15), 6);
+        book(NOW.plusDays(1), 4);
+
+        List<AppointmentView> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            AppointmentPage page = appointmentService.getAppointments(null, null, null, cursor, 5);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(22, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            AppointmentView previous = all.get(i - 1);
+            AppointmentView current = all.get(i);
+            assertTrue(previous.getAppointmentTime().isBefore(current.getAppointmentTime())
+                    || previous.getAppointmentTime().equals(current.getAppointmentTime()) && previous.getId() < current.getId());
+        }
+
+        AppointmentPage upcoming = appointmentService.getAppointments(NOW, null, null, null, 10);
+        assertEquals(4, upcoming.getItems().size());
+    }
+
+    private void book(LocalDateTime first, int count) {
+        List<Appointment> appointments = new ArrayList<>(Math.min(count, 1_000));
+        for (int i = 0; i < count; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            appointment.setAppointmentTime(first.plusMinutes(30L * i));
+            appointment.setStatus("PENDING");
+            appointments.add(appointment);
+            slotOccupancyIndex.tryReserve(doctor.getId(), appointment.getAppointmentTime());
+            if (appointments.size() == 1_000 || i == count - 1) {
+                appointmentRepository.saveAll(appointments);
+                appointments.clear();
+            }
+        }
+    }
+}
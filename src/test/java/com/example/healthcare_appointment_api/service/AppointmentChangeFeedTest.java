@@ -0,0 +1,152 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppointmentChangeFeedTest {
+    private static final LocalDateTime SLOT = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    private final AppointmentChangeFeed feed =
+            new AppointmentChangeFeed(new ObjectMapper().findAndRegisterModules(), 8, 4, 2, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void deliversChangesOnlyToTheDoctorAndThePatient() throws Exception {
+        CapturingEmitter doctor = subscribe(AppointmentChangeFeed.doctorTopic(7), null);
+        CapturingEmitter patient = subscribe(AppointmentChangeFeed.patientTopic(42), null);
+        CapturingEmitter otherPatient = subscribe(AppointmentChangeFeed.patientTopic(43), null);
+
+        feed.publish("booked", appointment(1L, 7L, 42L));
+
+        assertTrue(doctor.next().contains("event:booked"));
+        assertTrue(patient.next().contains("\"id\":1"));
+        assertNull(otherPatient.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void resumesFromLastEventId() throws Exception {
+        String topic = AppointmentChangeFeed.patientTopic(42);
+        CapturingEmitter first = subscribe(topic, null);
+        feed.publish("booked", appointment(1L, 7L, 42L));
+        String lastEventId = idOf(first.next());
+        first.complete();
+
+        feed.publish("booked", appointment(2L, 7L, 42L));
+        feed.publish("booked", appointment(3L, 8L, 99L));
+        feed.publish("booked", appointment(4L, 8L, 42L));
+
+        CapturingEmitter resumed = subscribe(topic, lastEventId);
+        assertTrue(resumed.next().contains("\"id\":2"));
+        assertTrue(resumed.next().contains("\"id\":4"));
+        assertNull(resumed.events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void sendsResetWhenTheResumePointIsNoLongerRetained() throws Exception {
+        String topic = AppointmentChangeFeed.doctorTopic(7);
+        CapturingEmitter first = subscribe(topic, null);
+        feed.publish("booked", appointment(1L, 7L, 42L));
+        String lastEventId = idOf(first.next());
+        first.complete();
+        for (long id = 2; id <= 20; id++) {
+            feed.publish("booked", appointment(id, 8L, 99L));
+        }
+
+        assertTrue(subscribe(topic, lastEventId).next().contains("event:reset"));
+        assertTrue(subscribe(topic, "unknown-5").next().contains("event:reset"));
+    }
+
+    @Test
+    void disconnectsASubscriberThatFallsBehind() throws Exception {
+        CapturingEmitter fast = subscribe(AppointmentChangeFeed.doctorTopic(8), null);
+        CountDownLatch release = new CountDownLatch(1);
+        CapturingEmitter slow = new CapturingEmitter(release);
+        feed.register(slow, AppointmentChangeFeed.doctorTopic(7), null);
+
+        for (long id = 1; id <= 10; id++) {
+            feed.publish("booked", appointment(id, 7L, 42L));
+        }
+        feed.publish("booked", appointment(11L, 8L, 42L));
+
+        assertTrue(fast.next().contains("\"id\":11"));
+        assertEquals(1, feed.getSubscriberCount());
+        release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    private CapturingEmitter subscribe(String topic, String lastEventId) throws Exception {
+        CapturingEmitter emitter = new CapturingEmitter(new CountDownLatch(0));
+        feed.register(emitter, topic, lastEventId);
+        if (lastEventId == null) {
+            assertTrue(emitter.next().contains("event:ready"));
+        }
+        return emitter;
+    }
+
+    private static String idOf(String event) {
+        for (String line : event.split("\n")) {
+            if (line.startsWith("id:")) {
+                return line.substring(3);
+            }
+        }
+        throw new AssertionError("no id in " + event);
+    }
+
+    private static AppointmentView appointment(long id, long doctorId, long patientId) {
+        return new AppointmentView(id, SLOT.plusMinutes(30 * id), "PENDING", doctorId, "Dr. " + doctorId,
+                "General", patientId, "patient" + patientId);
+    }
+
+    private static final class CapturingEmitter extends SseEmitter {
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        CapturingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            events.add(text.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+            super.complete();
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertTrue(event != null, "no event delivered");
+            return event;
+        }
+    }
+}
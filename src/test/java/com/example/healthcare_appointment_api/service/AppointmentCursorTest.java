@@ -0,0 +1,26 @@
+package com.example.healthcare_appointment_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AppointmentCursorTest {
+
+    @Test
+    void roundTripsTimeAndId() {
+        LocalDateTime time = LocalDateTime.of(2030, 1, 7, 9, 30, 15);
+        AppointmentCursor decoded = AppointmentCursor.decode(new AppointmentCursor(time, 42L).encode());
+
+        assertEquals(time, decoded.appointmentTime);
+        assertEquals(42L, decoded.id);
+    }
+
+    @Test
+    void rejectsGarbage() {
+        InvalidCursorException e = assertThrows(InvalidCursorException.class, () -> AppointmentCursor.decode("not a cursor"));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+}
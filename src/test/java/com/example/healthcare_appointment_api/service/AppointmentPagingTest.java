@@ -0,0 +1,190 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.controller.AppointmentController;
+import com.example.healthcare_appointment_api.dto.AppointmentPage;
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pages through findDoctorPage and findPatientPage via AppointmentService, with several rows
+ * sharing an appointment time so the (time, id) keyset has to break ties.
+ */
+@SpringBootTest
+class AppointmentPagingTest {
+    private static final LocalDateTime T = LocalDateTime.of(2031, 3, 3, 9, 0);
+    // Seven rows at T and five half an hour later, inserted out of time order.
+    private static final int[] OFFSETS = {0, 30, 0, 30, 0, 0, 30, 0, 30, 0, 30, 0};
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Doctor> doctors = new ArrayList<>();
+    private User patient;
+    private User doctorUser;
+    private List<Appointment> patientsRows;
+    private List<Appointment> doctorsRows;
+
+    @BeforeEach
+    void setUp() {
+        patient = user("paging-patient", "ROLE_PATIENT");
+        User otherPatient = user("paging-other-patient", "ROLE_PATIENT");
+        doctorUser = user("paging-doctor", "ROLE_DOCTOR");
+        Doctor doctor = doctor("Dr. Paging", doctorUser);
+        Doctor otherDoctor = doctor("Dr. Elsewhere", user("paging-other-doctor", "ROLE_DOCTOR"));
+
+        List<Appointment> shared = new ArrayList<>();
+        for (int i = 0; i < OFFSETS.length; i++) {
+            shared.add(insert(doctor, patient, T.plusMinutes(OFFSETS[i]), i % 3 == 0 ? "CONFIRMED" : "PENDING"));
+        }
+        // One more at T for each side, which the other side must not see.
+        patientsRows = new ArrayList<>(shared);
+        patientsRows.add(insert(otherDoctor, patient, T, "PENDING"));
+        doctorsRows = new ArrayList<>(shared);
+        doctorsRows.add(insert(doctor, otherPatient, T, "PENDING"));
+        Comparator<Appointment> pageOrder = Comparator.comparing(Appointment::getAppointmentTime).thenComparing(Appointment::getId);
+        patientsRows.sort(pageOrder);
+        doctorsRows.sort(pageOrder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        appointmentRepository.deleteAllInBatch();
+        doctorRepository.deleteAll(doctors);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void patientPagesHaveNoGapsOrDuplicates() {
+        authenticate(patient, "PATIENT");
+
+        assertEquals(ids(patientsRows), pageThrough(null, 5, 3));
+        assertEquals(ids(patientsRows), pageThrough(null, 1, 13));
+        // Exactly one page's worth: the limit + 1 probe finds nothing more, so there is no next cursor.
+        assertEquals(ids(patientsRows), pageThrough(null, 13, 1));
+    }
+
+    @Test
+    void doctorPagesHaveNoGapsOrDuplicates() {
+        authenticate(doctorUser, "DOCTOR");
+
+        assertEquals(ids(doctorsRows), pageThrough(null, 3, 5));
+        assertEquals(ids(doctorsRows), pageThrough(null, 13, 1));
+    }
+
+    @Test
+    void statusFilterAppliesOnEveryPage() {
+        authenticate(patient, "PATIENT");
+        List<Long> confirmed = ids(patientsRows.stream().filter(a -> "CONFIRMED".equals(a.getStatus())).toList());
+
+        assertEquals(4, confirmed.size());
+        assertEquals(confirmed, pageThrough("confirmed", 2, 2));
+        assertEquals(confirmed, pageThrough("CONFIRMED", 3, 2));
+    }
+
+    @Test
+    void anInvalidCursorIsABadRequest() throws Exception {
+        authenticate(patient, "PATIENT");
+        AppointmentController controller = new AppointmentController();
+        ReflectionTestUtils.setField(controller, "appointmentService", appointmentService);
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        mvc.perform(get("/api/appointments").param("cursor", "bm90LWEtY3Vyc29y"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor"));
+    }
+
+    // Follows nextCursor to the end, checking every page but the last is full.
+    private List<Long> pageThrough(String status, int limit, int expectedPages) {
+        List<Long> seen = new ArrayList<>();
+        Set<Long> unique = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            AppointmentPage page = appointmentService.getAppointments(null, null, status, cursor, limit);
+            pages++;
+            cursor = page.getNextCursor();
+            if (cursor != null) {
+                assertEquals(limit, page.getItems().size());
+            }
+            for (AppointmentView row : page.getItems()) {
+                assertTrue(unique.add(row.getId()), "appointment " + row.getId() + " returned twice");
+                seen.add(row.getId());
+            }
+        } while (cursor != null);
+        assertEquals(expectedPages, pages);
+        return seen;
+    }
+
+    private Appointment insert(Doctor doctor, User patient, LocalDateTime time, String status) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setAppointmentTime(time);
+        appointment.setStatus(status);
+        return appointmentRepository.save(appointment);
+    }
+
+    private Doctor doctor(String name, User user) {
+        Doctor doctor = new Doctor();
+        doctor.setName(name);
+        doctor.setSpecialty("General");
+        doctor.setUser(user);
+        doctors.add(doctorRepository.save(doctor));
+        return doctor;
+    }
+
+    private User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRoles(Set.of(role));
+        users.add(userRepository.save(user));
+        return user;
+    }
+
+    private static void authenticate(User user, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(user.getId(), user.getUsername(), role, 0L, Long.MAX_VALUE), null, List.of()));
+    }
+
+    private static List<Long> ids(List<Appointment> appointments) {
+        return appointments.stream().map(Appointment::getId).toList();
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AppointmentServiceConcurrencyTest {
+    private static final Logger logger = Logger.getLogger(AppointmentServiceConcurrencyTest.class.getName());
+    private static final int THREADS = 16;
+    private static final int DOCTORS = 4;
+    private static final int SLOTS_PER_DOCTOR = 25;
+    private static final long ROUND_TRIP_MICROS = 500;
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    private final ConcurrentLinkedQueue<Appointment> table = new ConcurrentLinkedQueue<>();
+    private final User patient = new User();
+    private AppointmentRepository appointmentRepository;
+    private DoctorRepository doctorRepository;
+    private UserRepository userRepository;
+    private AppointmentService appointmentService;
+
+    @BeforeEach
+    void setUp() {
+        patient.setId(1L);
+        patient.setUsername("patient1");
+        appointmentRepository = mock(AppointmentRepository.class);
+        doctorRepository = mock(DoctorRepository.class);
+        userRepository = mock(UserRepository.class);
+
+        when(doctorRepository.findById(anyLong())).thenAnswer(inv -> {
+            roundTrip();
+            Doctor doctor = new Doctor();
+            doctor.setId(inv.getArgument(0));
+            return Optional.of(doctor);
+        });
+        when(userRepository.findById(1L)).thenAnswer(inv -> {
+            roundTrip();
+            return Optional.of(patient);
+        });
+        when(appointmentRepository.existsByDoctorAndAppointmentTime(any(), any())).thenAnswer(inv -> {
+            roundTrip();
+            Doctor doctor = inv.getArgument(0);
+            LocalDateTime time = inv.getArgument(1);
+            return table.stream().anyMatch(a -> a.getDoctor().getId().equals(doctor.getId())
+                    && a.getAppointmentTime().equals(time));
+        });
+        when(appointmentRepository.save(any())).thenAnswer(inv -> {
+            roundTrip();
+            Appointment appointment = inv.getArgument(0);
+            table.add(appointment);
+            return appointment;
+        });
+
+        appointmentService = new AppointmentService();
+        ReflectionTestUtils.setField(appointmentService, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(appointmentService, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(appointmentService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(appointmentService, "slotOccupancyIndex", new SlotOccupancyIndex());
+        ReflectionTestUtils.setField(appointmentService, "appointmentChangeFeed",
+                new AppointmentChangeFeed(new ObjectMapper().findAndRegisterModules(), 1024, 64, 1, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(appointmentService, "reminderScheduler", mock(ReminderScheduler.class));
+        ReflectionTestUtils.setField(appointmentService, "appointmentAnalytics", mock(AppointmentAnalytics.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void concurrentBookingsNeverDoubleBookASlot() throws Exception {
+        run(appointmentService::bookAppointment);
+
+        assertEquals(0, doubleBookings());
+        assertEquals(DOCTORS * SLOTS_PER_DOCTOR, table.size());
+    }
+
+    // Throughput against the check-then-insert sequence; timing-dependent, so only run with -Pbenchmark.
+    @Test
+    @Tag("benchmark")
+    void slotIndexOutRunsCheckThenInsert() throws Exception {
+        double legacyRate = run(this::legacyBook);
+        int legacyDoubleBookings = doubleBookings();
+        table.clear();
+
+        double indexedRate = run(appointmentService::bookAppointment);
+
+        logger.info(String.format("check-then-insert: %.0f attempts/s, %d double bookings", legacyRate, legacyDoubleBookings));
+        logger.info(String.format("slot index:        %.0f attempts/s, %d double bookings", indexedRate, doubleBookings()));
+        assertEquals(0, doubleBookings());
+    }
+
+    @Test
+    void failedInsertReleasesTheSlot() {
+        authenticate();
+        doThrow(new RuntimeException("insert failed")).when(appointmentRepository).save(any());
+        SlotOccupancyIndex index = (SlotOccupancyIndex) ReflectionTestUtils.getField(appointmentService, "slotOccupancyIndex");
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> appointmentService.bookAppointment(request(1L, FIRST_SLOT)));
+        assertEquals("insert failed", thrown.getMessage());
+        assertFalse(index.isBooked(1L, FIRST_SLOT));
+    }
+
+    private double run(Booking booking) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            List<int[]> order = new ArrayList<>();
+            for (int d = 1; d <= DOCTORS; d++) {
+                for (int s = 0; s < SLOTS_PER_DOCTOR; s++) {
+                    order.add(new int[]{d, s});
+                }
+            }
+            Collections.shuffle(order);
+            tasks.add(() -> {
+                authenticate();
+                for (int[] slot : order) {
+                    attempts.incrementAndGet();
+                    try {
+                        booking.book(request(slot[0], FIRST_SLOT.plusMinutes(30L * slot[1])));
+                    } catch (RuntimeException ignored) {
+                        // slot already taken
+                    }
+                }
+            });
+        }
+        for (Runnable task : tasks) {
+            pool.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        return attempts.get() / seconds;
+    }
+
+    // The check-then-insert sequence bookAppointment used before the slot index existed.
+    private Appointment legacyBook(Appointment appointment) {
+        Doctor doctor = doctorRepository.findById(appointment.getDoctor().getId())
+                .orElseThrow(() -> new RuntimeException("Doctor not found"));
+        if (appointmentRepository.existsByDoctorAndAppointmentTime(doctor, appointment.getAppointmentTime())) {
+            throw new RuntimeException("Doctor is not available at this time");
+        }
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setStatus("PENDING");
+        return appointmentRepository.save(appointment);
+    }
+
+    private int doubleBookings() {
+        Map<String, Integer> counts = new ConcurrentHashMap<>();
+        for (Appointment a : table) {
+            counts.merge(a.getDoctor().getId() + "@" + a.getAppointmentTime(), 1, Integer::sum);
+        }
+        return counts.values().stream().mapToInt(c -> c - 1).sum();
+    }
+
+    private void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                        new JwtPrincipal(1L, "patient1", "PATIENT", 0L, Long.MAX_VALUE), null, List.of()));
+    }
+
+    private static Appointment request(long doctorId, LocalDateTime time) {
+        Doctor doctor = new Doctor();
+        doctor.setId(doctorId);
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setAppointmentTime(time);
+        return appointment;
+    }
+
+    private static void roundTrip() {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ROUND_TRIP_MICROS));
+    }
+
+    @FunctionalInterface
+    private interface Booking {
+        Object book(Appointment appointment);
+    }
+}
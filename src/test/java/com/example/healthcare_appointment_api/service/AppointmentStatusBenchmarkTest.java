@@ -0,0 +1,138 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Confirms 1,000 of a doctor's appointments at once, through the bulk status change and through
+ * a load-check-save per appointment, and reports p50 latency and SQL statements for each. Run with
+ * {@code mvn test -Pbenchmark -Dtest=AppointmentStatusBenchmarkTest}; status.rows sets the batch.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class AppointmentStatusBenchmarkTest {
+    private static final int ROWS = Integer.getInteger("status.rows", 1_000);
+    private static final int WARMUP = 5;
+    private static final int ROUNDS = 15;
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User patient;
+    private User doctorUser;
+    private Doctor doctor;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        patient = user("status-bench-patient", "ROLE_PATIENT");
+        doctorUser = user("status-bench-doctor", "ROLE_DOCTOR");
+        doctor = new Doctor();
+        doctor.setName("Dr. Bench");
+        doctor.setSpecialty("General");
+        doctor.setUser(doctorUser);
+        doctorRepository.save(doctor);
+        List<Appointment> appointments = new ArrayList<>(ROWS);
+        LocalDateTime first = LocalDateTime.of(2031, 1, 6, 9, 0);
+        for (int i = 0; i < ROWS; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setDoctor(doctor);
+            appointment.setPatient(patient);
+            appointment.setAppointmentTime(first.plusMinutes(30L * i));
+            appointment.setStatus("PENDING");
+            appointments.add(appointment);
+        }
+        ids = appointmentRepository.saveAll(appointments).stream().map(Appointment::getId).toList();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(doctorUser.getId(), doctorUser.getUsername(), "DOCTOR", 0L, Long.MAX_VALUE), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        appointmentRepository.deleteAllInBatch();
+        doctorRepository.delete(doctor);
+        userRepository.deleteAll(List.of(patient, doctorUser));
+    }
+
+    @Test
+    void bulkTransitionAgainstPerRowSaves() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        System.out.printf("%d appointments PENDING -> CONFIRMED%n%-22s %10s %12s%n", ROWS, "approach", "p50 ms", "statements");
+        report("bulk status change", statistics, transaction,
+                () -> assertEquals(ROWS, appointmentService.changeStatus(ids, "CONFIRMED").getApplied().size()));
+        report("load and save per row", statistics, transaction, () -> transaction.executeWithoutResult(status -> {
+            Long doctorId = doctorRepository.findIdByUserId(doctorUser.getId()).orElseThrow();
+            for (Long id : ids) {
+                Appointment appointment = appointmentRepository.findById(id).orElseThrow();
+                if (appointment.getDoctor().getId().equals(doctorId) && "PENDING".equals(appointment.getStatus())) {
+                    appointment.setStatus("CONFIRMED");
+                    appointmentRepository.save(appointment);
+                }
+            }
+        }));
+    }
+
+    private void report(String name, Statistics statistics, TransactionTemplate transaction, Runnable change) {
+        long[] nanos = new long[ROUNDS];
+        long statements = 0;
+        for (int i = 0; i < WARMUP + ROUNDS; i++) {
+            transaction.executeWithoutResult(status -> appointmentRepository.updateStatus(ids, "CONFIRMED", "PENDING"));
+            statistics.clear();
+            long start = System.nanoTime();
+            change.run();
+            if (i >= WARMUP) {
+                nanos[i - WARMUP] = System.nanoTime() - start;
+            }
+            statements = statistics.getPrepareStatementCount();
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-22s %10.1f %12d%n", name, nanos[ROUNDS / 2] / 1e6, statements);
+    }
+
+    private User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRoles(Set.of(role));
+        return userRepository.save(user);
+    }
+}
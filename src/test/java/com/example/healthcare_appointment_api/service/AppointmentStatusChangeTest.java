@@ -0,0 +1,190 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.dto.StatusChangeResult;
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AppointmentStatusChangeTest {
+    private static final LocalDateTime SLOT = LocalDateTime.of(2031, 5, 5, 9, 0);
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Doctor> doctors = new ArrayList<>();
+    private User patient;
+    private User otherPatient;
+    private User doctorUser;
+    private Doctor doctor;
+    private Doctor otherDoctor;
+
+    @BeforeEach
+    void setUp() {
+        patient = user("status-patient", "ROLE_PATIENT");
+        otherPatient = user("status-other-patient", "ROLE_PATIENT");
+        doctorUser = user("status-doctor", "ROLE_DOCTOR");
+        doctor = doctor(doctorUser, "Dr. Status");
+        otherDoctor = doctor(user("status-other-doctor", "ROLE_DOCTOR"), "Dr. Other");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        appointmentRepository.deleteAllInBatch();
+        doctorRepository.deleteAll(doctors);
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void doctorsChangeTheirOwnAppointmentsInOneUpdate() {
+        Appointment first = insert(doctor, patient, SLOT, "PENDING");
+        Appointment second = insert(doctor, otherPatient, SLOT.plusHours(1), "PENDING");
+        Appointment done = insert(doctor, patient, SLOT.plusHours(2), "COMPLETED");
+        Appointment notMine = insert(otherDoctor, patient, SLOT, "PENDING");
+        authenticate(doctorUser, "DOCTOR");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        doctorRepository.findIdByUserId(doctorUser.getId());
+
+        statistics.clear();
+        StatusChangeResult result = appointmentService.changeStatus(
+                List.of(first.getId(), second.getId(), done.getId(), notMine.getId(), first.getId(), -1L), "confirmed");
+
+        assertEquals(List.of(first.getId(), second.getId()), result.getApplied());
+        assertEquals(Map.of(done.getId(), "cannot change from COMPLETED to CONFIRMED",
+                notMine.getId(), "not found", -1L, "not found"), reasons(result));
+        // One read of the rows and one update, not a load and save per appointment.
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(Map.of(first.getId(), "CONFIRMED", second.getId(), "CONFIRMED", done.getId(), "COMPLETED",
+                notMine.getId(), "PENDING"), statuses());
+    }
+
+    @Test
+    void cancellingFreesTheSlotAndRepeatingIsHarmless() {
+        authenticate(patient, "PATIENT");
+        AppointmentView booked = book(SLOT);
+        Appointment confirmed = insert(doctor, patient, SLOT.plusHours(1), "CONFIRMED");
+        authenticate(doctorUser, "DOCTOR");
+
+        StatusChangeResult result = appointmentService.changeStatus(List.of(booked.getId(), confirmed.getId()), "CANCELLED");
+        assertEquals(List.of(booked.getId(), confirmed.getId()), result.getApplied());
+        assertEquals(List.of(booked.getId(), confirmed.getId()),
+                appointmentService.changeStatus(List.of(booked.getId(), confirmed.getId()), "CANCELLED").getApplied());
+
+        authenticate(otherPatient, "PATIENT");
+        AppointmentView rebooked = book(SLOT);
+        assertEquals("PENDING", rebooked.getStatus());
+    }
+
+    @Test
+    void patientsCanOnlyCancelTheirOwn() {
+        Appointment mine = insert(doctor, patient, SLOT, "PENDING");
+        Appointment theirs = insert(doctor, otherPatient, SLOT.plusHours(1), "PENDING");
+        authenticate(patient, "PATIENT");
+
+        assertThrows(RuntimeException.class, () -> appointmentService.changeStatus(List.of(mine.getId()), "CONFIRMED"));
+        StatusChangeResult result = appointmentService.changeStatus(List.of(mine.getId(), theirs.getId()), "CANCELLED");
+
+        assertEquals(List.of(mine.getId()), result.getApplied());
+        assertEquals(Map.of(theirs.getId(), "not found"), reasons(result));
+        assertEquals("PENDING", statuses().get(theirs.getId()));
+    }
+
+    @Test
+    void unknownStatusesAndOversizedBatchesAreRefused() {
+        authenticate(doctorUser, "DOCTOR");
+        assertThrows(RuntimeException.class, () -> appointmentService.changeStatus(List.of(1L), "DONE"));
+        List<Long> tooMany = new ArrayList<>();
+        for (long id = 1; id <= 1_001; id++) {
+            tooMany.add(id);
+        }
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> appointmentService.changeStatus(tooMany, "CONFIRMED"));
+        assertTrue(error.getMessage().contains("1000"), error.getMessage());
+    }
+
+    private static Map<Long, String> reasons(StatusChangeResult result) {
+        return result.getRejected().stream()
+                .collect(Collectors.toMap(StatusChangeResult.Rejection::getId, StatusChangeResult.Rejection::getReason));
+    }
+
+    private Map<Long, String> statuses() {
+        return appointmentRepository.findAll().stream().collect(Collectors.toMap(Appointment::getId, Appointment::getStatus));
+    }
+
+    private AppointmentView book(LocalDateTime time) {
+        Appointment appointment = new Appointment();
+        Doctor reference = new Doctor();
+        reference.setId(doctor.getId());
+        appointment.setDoctor(reference);
+        appointment.setAppointmentTime(time);
+        return appointmentService.bookAppointment(appointment);
+    }
+
+    private Appointment insert(Doctor doctor, User patient, LocalDateTime time, String status) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setAppointmentTime(time);
+        appointment.setStatus(status);
+        return appointmentRepository.save(appointment);
+    }
+
+    private User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRoles(Set.of(role));
+        users.add(userRepository.save(user));
+        return user;
+    }
+
+    private Doctor doctor(User user, String name) {
+        Doctor doctor = new Doctor();
+        doctor.setName(name);
+        doctor.setSpecialty("General");
+        doctor.setUser(user);
+        doctors.add(doctorRepository.save(doctor));
+        return doctor;
+    }
+
+    private static void authenticate(User user, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(user.getId(), user.getUsername(), role, 0L, Long.MAX_VALUE), null, List.of()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.DoctorView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorDirectoryTest {
+    private final DoctorDirectory directory = new DoctorDirectory(new ObjectMapper());
+
+    @Test
+    void partitionsBySpecialtyCaseInsensitively() {
+        directory.replaceAll(List.of(
+                new DoctorView(1L, "Dr. John Smith", "Cardiology", "555-0100", 10L),
+                new DoctorView(2L, "Dr. Jane Doe", "Neurology", "555-0101", 11L)), directory.current().getVersion());
+        DoctorDirectory.Snapshot snapshot = directory.current();
+
+        assertEquals(2, snapshot.size());
+        assertEquals(1, snapshot.getDoctorsBySpecialty("cardiology").size());
+        assertTrue(json(snapshot.getSpecialtyJson("CARDIOLOGY")).contains("Dr. John Smith"));
+        assertEquals("[]", json(snapshot.getSpecialtyJson("Dermatology")));
+        assertTrue(json(snapshot.getDoctor(2L).getJson()).contains("\"userId\":11"));
+    }
+
+    @Test
+    void writesBumpTheVersionOnlyWhenSomethingChanged() {
+        DoctorView smith = new DoctorView(1L, "Dr. John Smith", "Cardiology", "555-0100", 10L);
+        DoctorView doe = new DoctorView(2L, "Dr. Jane Doe", "Neurology", "555-0101", 11L);
+        directory.replaceAll(List.of(smith, doe), directory.current().getVersion());
+        DoctorDirectory.Snapshot before = directory.current();
+
+        directory.replaceAll(List.of(smith, doe), directory.current().getVersion());
+        directory.upsert(new DoctorView(1L, "Dr. John Smith", "Cardiology", "555-0100", 10L));
+        assertSame(before, directory.current());
+
+        directory.upsert(new DoctorView(1L, "Dr. John Smith", "Cardiology", "555-0199", 10L));
+        DoctorDirectory.Snapshot after = directory.current();
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertNotEquals(before.getDoctor(1L).getEtag(), after.getDoctor(1L).getEtag());
+        assertSame(before.getDoctor(2L), after.getDoctor(2L));
+    }
+
+    @Test
+    void reloadKeepsUpsertsThatLandedWhileItRead() {
+        DoctorView smith = new DoctorView(1L, "Dr. John Smith", "Cardiology", "555-0100", 10L);
+        directory.replaceAll(List.of(smith), directory.current().getVersion());
+
+        long readVersion = directory.current().getVersion();
+        DoctorView updated = new DoctorView(1L, "Dr. John Smith", "Oncology", "555-0100", 10L);
+        DoctorView created = new DoctorView(2L, "Dr. Jane Doe", "Neurology", "555-0101", 11L);
+        directory.upsert(updated);
+        directory.upsert(created);
+        directory.replaceAll(List.of(smith, new DoctorView(3L, "Dr. Ann Lee", "Pediatrics", null, 12L)), readVersion);
+
+        assertEquals(updated, directory.current().getDoctor(1L).getView());
+        assertEquals(created, directory.current().getDoctor(2L).getView());
+        assertEquals(3, directory.current().size());
+
+        // A reload that started before the last one applied is older still.
+        assertFalse(directory.replaceAll(List.of(smith), readVersion - 1));
+        // Once a reload has read past the upserts, it is authoritative again.
+        assertTrue(directory.replaceAll(List.of(smith), directory.current().getVersion()));
+        assertEquals(smith, directory.current().getDoctor(1L).getView());
+        assertEquals(1, directory.current().size());
+    }
+
+    private static String json(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
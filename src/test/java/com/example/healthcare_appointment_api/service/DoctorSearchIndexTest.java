@@ -0,0 +1,120 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.DoctorView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorSearchIndexTest {
+    private final DoctorSearchIndex index = new DoctorSearchIndex();
+
+    @Test
+    void matchesPrefixesIgnoringCaseAndAccents() {
+        index.rebuild(List.of(
+                doctor(1L, "Dr. José Núñez", "Cardiology"),
+                doctor(2L, "Dr. Jane Doe", "Neurology"),
+                doctor(3L, "Dr. John Smith", "Cardiology")));
+
+        assertEquals(List.of(1L), ids(index.search("jose nun", 10)));
+        assertEquals(List.of(1L, 3L), ids(index.search("CARDIO", 10)));
+        assertEquals(List.of(), ids(index.search("dr", 10)));
+    }
+
+    @Test
+    void ranksNameMatchesAboveSpecialtyMatchesAndExactAbovePrefix() {
+        index.rebuild(List.of(
+                doctor(1L, "Dr. Anna Neuman", "Dermatology"),
+                doctor(2L, "Dr. Ben Carter", "Neurology"),
+                doctor(3L, "Dr. Neu", "Pediatrics")));
+
+        assertEquals(List.of(3L, 1L, 2L), ids(index.search("neu", 10)));
+        assertEquals(List.of(3L, 1L), ids(index.search("neu", 2)));
+    }
+
+    @Test
+    void upsertReplacesStaleTokens() {
+        index.rebuild(List.of(doctor(1L, "Dr. John Smith", "Cardiology")));
+
+        index.upsert(doctor(1L, "Dr. John Smith", "Oncology"));
+
+        assertEquals(List.of(), ids(index.search("cardio", 10)));
+        assertEquals(List.of(1L), ids(index.search("onco smi", 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void findsRareMatchesAmongThousandsSharingATerm() {
+        List<DoctorView> doctors = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            doctors.add(doctor(id, "Dr. Lee " + id, "Cardiology"));
+        }
+        doctors.add(doctor(3_000L, "Dr. Ann Smith", "Cardiology"));
+        index.rebuild(doctors);
+
+        assertEquals(List.of(3_000L), ids(index.search("smith cardiology", 10)));
+        assertEquals(List.of(3_000L), ids(index.search("cardiology smi", 10)));
+    }
+
+    @Test
+    void upsertLeavesEarlierSearchesAndOtherDoctorsIntact() {
+        index.rebuild(List.of(doctor(1L, "Dr. John Smith", "Cardiology"), doctor(2L, "Dr. Jane Doe", "Cardiology")));
+        List<DoctorView> before = index.search("cardio", 10);
+
+        index.upsert(doctor(1L, "Dr. John Smith", "Oncology"));
+        index.upsert(doctor(3L, "Dr. Ann Lee", "Cardiology"));
+
+        assertEquals(List.of(2L, 1L), ids(before));
+        assertEquals(List.of(3L, 2L), ids(index.search("cardio", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void answersWellUnderAMillisecondAtOneHundredThousandDoctors() {
+        String[] syllables = {"an", "ben", "car", "da", "el", "fa", "gra", "hi", "ro", "ja", "ko", "li",
+                "mü", "nu", "o", "pe", "qui", "ra", "si", "ta", "u", "vi", "wa", "xe", "yo", "zé"};
+        String[] specialties = {"Cardiology", "Neurology", "Dermatology", "Pediatrics", "Oncology", "Orthopedics"};
+        Random random = new Random(42);
+        List<DoctorView> doctors = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            String name = "Dr. " + word(random, syllables, 2) + " " + word(random, syllables, 3);
+            doctors.add(doctor(id, name, specialties[random.nextInt(specialties.length)]));
+        }
+        index.rebuild(doctors);
+
+        String[] queries = {"ca", "mu", "benro", "graka", "neuro", "elsi ta", "cardiology dael", "zeyoan"};
+        for (int i = 0; i < 2_000; i++) {
+            index.search(queries[i % queries.length], 10);
+        }
+        int runs = 20_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            index.search(queries[i % queries.length], 10);
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / runs;
+        System.out.printf("doctor search over %d doctors: %.1f us per query%n", index.size(), micros);
+
+        assertTrue(index.search("cardiology", 10).stream().allMatch(d -> d.getSpecialty().equals("Cardiology")));
+        assertTrue(micros < 1_000, "search took " + micros + " us");
+    }
+
+    private static String word(Random random, String[] syllables, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append(syllables[random.nextInt(syllables.length)]);
+        }
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static List<Long> ids(List<DoctorView> doctors) {
+        return doctors.stream().map(DoctorView::getId).toList();
+    }
+
+    private static DoctorView doctor(long id, String name, String specialty) {
+        return new DoctorView(id, name, specialty, null, null);
+    }
+}
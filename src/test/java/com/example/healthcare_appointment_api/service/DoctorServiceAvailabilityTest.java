@@ -0,0 +1,103 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.AvailableSlot;
+import com.example.healthcare_appointment_api.dto.DoctorView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorServiceAvailabilityTest {
+    private static final LocalDateTime MONDAY_9AM = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+    private final SlotOccupancyIndex index = new SlotOccupancyIndex();
+    private final DoctorDirectory directory = new DoctorDirectory(new ObjectMapper());
+    private DoctorService doctorService;
+
+    @BeforeEach
+    void setUp() {
+        doctorService = new DoctorService();
+        ReflectionTestUtils.setField(doctorService, "doctorDirectory", directory);
+        ReflectionTestUtils.setField(doctorService, "slotOccupancyIndex", index);
+        ReflectionTestUtils.setField(doctorService, "slotMinutes", 30L);
+    }
+
+    @Test
+    void mergesFreeSlotsAcrossDoctorsInTimeOrder() {
+        directory.replaceAll(List.of(doctor(1L, "Cardiology"), doctor(2L, "Cardiology"), doctor(3L, "Neurology")), directory.current().getVersion());
+        index.tryReserve(1L, MONDAY_9AM);
+        index.tryReserve(2L, MONDAY_9AM);
+        index.tryReserve(2L, MONDAY_9AM.plusMinutes(30));
+
+        List<AvailableSlot> slots = doctorService.findAvailableSlots("Cardiology", MONDAY_9AM, MONDAY_9AM.plusHours(2), 4);
+
+        assertEquals(4, slots.size());
+        assertSlot(slots.get(0), 1L, MONDAY_9AM.plusMinutes(30));
+        assertSlot(slots.get(1), 1L, MONDAY_9AM.plusMinutes(60));
+        assertSlot(slots.get(2), 2L, MONDAY_9AM.plusMinutes(60));
+        assertSlot(slots.get(3), 1L, MONDAY_9AM.plusMinutes(90));
+    }
+
+    @Test
+    void bookingOffTheGridBlocksTheSlotItFallsIn() {
+        directory.replaceAll(List.of(doctor(1L, "Neurology")), directory.current().getVersion());
+        index.tryReserve(1L, MONDAY_9AM.plusMinutes(10));
+
+        List<AvailableSlot> slots = doctorService.findAvailableSlots("neurology", MONDAY_9AM.minusMinutes(5), MONDAY_9AM.plusHours(1), 10);
+
+        assertEquals(1, slots.size());
+        assertSlot(slots.get(0), 1L, MONDAY_9AM.plusMinutes(30));
+    }
+
+    @Test
+    void rejectsEmptyWindow() {
+        assertThrows(RuntimeException.class,
+                () -> doctorService.findAvailableSlots("Cardiology", MONDAY_9AM, MONDAY_9AM, 10));
+    }
+
+    @Test
+    void staysFastWithThousandsOfDoctorsAndMillionsOfBookings() {
+        int doctorCount = 2_000;
+        int bookingsPerDoctor = 500;
+        List<DoctorView> doctors = new ArrayList<>(doctorCount);
+        for (long id = 1; id <= doctorCount; id++) {
+            doctors.add(doctor(id, "General"));
+            for (int s = 0; s < bookingsPerDoctor; s++) {
+                index.tryReserve(id, MONDAY_9AM.plusMinutes(30L * s));
+            }
+        }
+        directory.replaceAll(doctors, directory.current().getVersion());
+
+        List<AvailableSlot> slots = List.of();
+        long start = System.nanoTime();
+        int runs = 50;
+        for (int i = 0; i < runs; i++) {
+            slots = doctorService.findAvailableSlots("General", MONDAY_9AM, MONDAY_9AM.plusDays(30), 20);
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / runs;
+        System.out.printf("availability over %d doctors / %d bookings: %.0f us per query%n",
+                doctorCount, index.size(), micros);
+
+        assertEquals(20, slots.size());
+        LocalDateTime firstFree = MONDAY_9AM.plusMinutes(30L * bookingsPerDoctor);
+        slots.forEach(slot -> assertEquals(firstFree, slot.getStartTime()));
+        assertTrue(slots.get(0).getDoctorId() < slots.get(19).getDoctorId());
+    }
+
+    private static void assertSlot(AvailableSlot slot, long doctorId, LocalDateTime time) {
+        assertEquals(doctorId, slot.getDoctorId());
+        assertEquals(time, slot.getStartTime());
+    }
+
+    private static DoctorView doctor(long id, String specialty) {
+        return new DoctorView(id, "Dr. " + id, specialty, null, null);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.dto.UserExportRow;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.ArchivedAppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTest {
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+    private final ArchivedAppointmentRepository archivedAppointmentRepository = mock(ArchivedAppointmentRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(archivedAppointmentRepository.streamForExport()).thenReturn(Stream.empty());
+        exportService = new ExportService(userRepository, mock(DoctorRepository.class), appointmentRepository,
+                archivedAppointmentRepository,
+                transactionManager, objectMapper, meterRegistry);
+    }
+
+    @Test
+    void writesOneJsonObjectPerLineAndClosesTheStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamForExport()).thenReturn(
+                LongStream.rangeClosed(1, 3)
+                        .mapToObj(id -> new UserExportRow(id, "user" + id, id == 2 ? Boolean.TRUE : null))
+                        .onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.exportUsers(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, rows);
+        assertEquals(4, lines.length);
+        assertEquals("", lines[3]);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(2, second.get("id").asLong());
+        assertEquals("user2", second.get("username").asText());
+        assertTrue(second.get("disabled").asBoolean());
+        assertTrue(closed.get());
+        assertEquals(3.0, meterRegistry.get("export.rows").tag("entity", "users").counter().count());
+    }
+
+    @Test
+    void emptyTableProducesEmptyBody() {
+        when(appointmentRepository.streamForExport()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, exportService.exportAppointments(out));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void appendsArchivedAppointmentsAfterHotOnes() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2030, 1, 7, 9, 0);
+        AtomicBoolean hotClosed = new AtomicBoolean();
+        when(appointmentRepository.streamForExport()).thenReturn(Stream.of(
+                new AppointmentView(5L, base, "PENDING", 1L, "Dr. 1", "General", 2L, "p2"))
+                .onClose(() -> hotClosed.set(true)));
+        when(archivedAppointmentRepository.streamForExport()).thenAnswer(inv -> {
+            assertTrue(hotClosed.get(), "hot cursor should be closed before the archive is read");
+            return Stream.of(new AppointmentView(1L, base.minusYears(1), "PENDING", 1L, "Dr. 1", "General", 2L, "p2"));
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exportService.exportAppointments(out));
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(1, objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void streamsLargeTablesRowByRow() {
+        int count = 200_000;
+        LocalDateTime base = LocalDateTime.of(2030, 1, 7, 9, 0);
+        when(appointmentRepository.streamForExport()).thenReturn(
+                LongStream.rangeClosed(1, count).mapToObj(id -> new AppointmentView(
+                        id, base.plusMinutes(30 * id), "PENDING", id % 50, "Dr. " + (id % 50), "General", id, "p" + id)));
+
+        CountingOutputStream out = new CountingOutputStream();
+        long start = System.nanoTime();
+        long rows = exportService.exportAppointments(out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("exported %d appointments (%d bytes) at %.0f rows/s%n", rows, out.bytes, rows / seconds);
+
+        assertEquals(count, rows);
+        assertEquals(count, out.newlines);
+    }
+
+    private static final class CountingOutputStream extends java.io.OutputStream {
+        private long bytes;
+        private long newlines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                newlines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    newlines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.dto.ImportReport;
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Imports a generated CSV of appointments from a file and compares the rate with booking the
+ * same kind of rows one at a time through AppointmentService. Run with
+ * {@code mvn test -Pbenchmark -Dtest=ImportBenchmarkTest -Dimport.rows=1000000}; import.booked
+ * sets how many rows the per-booking baseline books.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ImportBenchmarkTest {
+    private static final int ROWS = Integer.getInteger("import.rows", 200_000);
+    private static final int BOOKED = Integer.getInteger("import.booked", 5_000);
+    private static final int DOCTORS = 200;
+    private static final int PATIENTS = 2_000;
+    private static final LocalDateTime FIRST = LocalDateTime.of(2032, 1, 5, 8, 0);
+
+    @Autowired
+    private ImportService importService;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    private final List<Doctor> doctors = new ArrayList<>();
+    private final List<User> patients = new ArrayList<>();
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (int i = 0; i < DOCTORS; i++) {
+            Doctor doctor = new Doctor();
+            doctor.setName("Dr. Import " + i);
+            doctor.setSpecialty("General");
+            doctors.add(doctor);
+        }
+        doctorRepository.saveAll(doctors);
+        for (int i = 0; i < PATIENTS; i++) {
+            User patient = new User();
+            patient.setUsername("import-bench-" + i);
+            patient.setPassword("x");
+            patient.setRoles(Set.of("ROLE_PATIENT"));
+            patients.add(patient);
+        }
+        userRepository.saveAll(patients);
+        file = Files.createTempFile("appointments", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("doctorId,patientId,appointmentTime,status\n");
+            for (int i = 0; i < ROWS; i++) {
+                writer.write(doctors.get(i % DOCTORS).getId() + "," + patients.get(i % PATIENTS).getId() + ","
+                        + FIRST.plusMinutes(30L * (i / DOCTORS)) + ",CONFIRMED\n");
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        SecurityContextHolder.clearContext();
+        appointmentRepository.deleteAllInBatch();
+        doctorRepository.deleteAllInBatch();
+        userRepository.deleteAll(patients);
+        slotOccupancyIndex.clear();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void importAgainstBookingOneByOne() throws IOException {
+        ImportReport report;
+        try (InputStream in = Files.newInputStream(file)) {
+            report = importService.importAppointments(in, ImportService.Format.CSV);
+        }
+        assertEquals(ROWS, report.getImported());
+
+        User patient = patients.get(0);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(patient.getId(), patient.getUsername(), "PATIENT", 0L, Long.MAX_VALUE), null, List.of()));
+        LocalDateTime later = FIRST.plusYears(1);
+        long start = System.nanoTime();
+        for (int i = 0; i < BOOKED; i++) {
+            Appointment appointment = new Appointment();
+            Doctor reference = new Doctor();
+            reference.setId(doctors.get(i % DOCTORS).getId());
+            appointment.setDoctor(reference);
+            appointment.setAppointmentTime(later.plusMinutes(30L * (i / DOCTORS)));
+            AppointmentView booked = appointmentService.bookAppointment(appointment);
+            assertEquals("PENDING", booked.getStatus());
+        }
+        double bookingSeconds = (System.nanoTime() - start) / 1e9;
+
+        double importRate = report.getImported() / Math.max(report.getElapsedMillis() / 1e3, 1e-3);
+        double bookingRate = BOOKED / bookingSeconds;
+        System.out.printf("%-18s %12s %14s %16s%n", "approach", "rows", "rows/s", "1M rows in");
+        System.out.printf("%-18s %,12d %,14.0f %14.1f s%n", "bulk import", ROWS, importRate, 1e6 / importRate);
+        System.out.printf("%-18s %,12d %,14.0f %14.1f s%n", "book one by one", BOOKED, bookingRate, 1e6 / bookingRate);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.DoctorView;
+import com.example.healthcare_appointment_api.dto.ImportReport;
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A batch size of 2 makes every test span several batches.
+@SpringBootTest(properties = "appointment.import.batch-size=2")
+class ImportServiceTest {
+    private static final LocalDateTime SLOT = LocalDateTime.of(2031, 3, 3, 9, 0);
+
+    @Autowired
+    private ImportService importService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+    @Autowired
+    private DoctorDirectory doctorDirectory;
+
+    private final List<User> users = new ArrayList<>();
+    private User patient;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        patient = user("import-patient");
+        doctor = new Doctor();
+        doctor.setName("Dr. Import");
+        doctor.setSpecialty("General");
+        doctorRepository.save(doctor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        appointmentRepository.deleteAllInBatch();
+        doctorRepository.deleteAllInBatch();
+        userRepository.deleteAll(users);
+        slotOccupancyIndex.clear();
+    }
+
+    @Test
+    void csvRowsAreCheckedInMemoryAndRejectedRowsReported() {
+        Appointment booked = new Appointment();
+        booked.setDoctor(doctor);
+        booked.setPatient(patient);
+        booked.setAppointmentTime(SLOT);
+        booked.setStatus("PENDING");
+        appointmentRepository.save(booked);
+        slotOccupancyIndex.tryReserve(doctor.getId(), SLOT);
+        long d = doctor.getId();
+        long p = patient.getId();
+
+        ImportReport report = importService.importAppointments(body(
+                "doctorId,patientId,appointmentTime,status",
+                d + "," + p + "," + SLOT.plusHours(1) + ",",
+                d + "," + p + "," + SLOT + ",CONFIRMED",
+                d + "," + p + "," + SLOT.plusHours(1) + ",PENDING",
+                "-1," + p + "," + SLOT.plusHours(2) + ",",
+                d + ",-5," + SLOT.plusHours(2) + ",",
+                d + "," + p + ",tomorrow,",
+                d + "," + p + "," + SLOT.plusHours(3) + ",DONE",
+                d + "," + p + "," + SLOT + ",cancelled",
+                " " + d + " , " + p + " , " + SLOT.plusHours(4) + " , completed "), ImportService.Format.CSV);
+
+        assertEquals(9, report.getRows());
+        assertEquals(3, report.getImported());
+        assertEquals(6, report.getRejectedCount());
+        assertTrue(report.isComplete());
+        assertEquals(Map.of(
+                2L, "doctor " + d + " is already booked at " + SLOT,
+                3L, "doctor " + d + " is already booked at " + SLOT.plusHours(1),
+                4L, "unknown doctor -1",
+                5L, "unknown patient -5",
+                6L, "appointmentTime is not a date-time: tomorrow",
+                7L, "Unknown appointment status: DONE"), reasons(report));
+        Map<LocalDateTime, String> saved = appointmentRepository.findAll().stream()
+                .filter(appointment -> !appointment.getId().equals(booked.getId()))
+                .collect(Collectors.toMap(Appointment::getAppointmentTime, Appointment::getStatus));
+        assertEquals(Map.of(SLOT.plusHours(1), "PENDING", SLOT, "CANCELLED", SLOT.plusHours(4), "COMPLETED"), saved);
+        assertTrue(slotOccupancyIndex.isBooked(d, SLOT.plusHours(1)));
+        assertFalse(slotOccupancyIndex.isBooked(d, SLOT.plusHours(2)));
+    }
+
+    @Test
+    void ndjsonExportsReimportAndMalformedInputStopsTheImport() {
+        long d = doctor.getId();
+        long p = patient.getId();
+        String row = "{\"id\":7,\"appointmentTime\":\"%s\",\"status\":\"PENDING\",\"doctorId\":%d,\"doctorName\":\"Dr. Import\","
+                + "\"specialty\":\"General\",\"patientId\":%d,\"patientUsername\":\"import-patient\"}";
+
+        ImportReport report = importService.importAppointments(body(
+                String.format(row, SLOT, d, p),
+                "[1, 2]",
+                String.format(row, SLOT.plusHours(1), d, p),
+                String.format(row, SLOT.plusHours(2), d, p),
+                "{\"doctorId\": " + d + ", \"patientId\": ",
+                String.format(row, SLOT.plusHours(3), d, p)), ImportService.Format.NDJSON);
+
+        assertFalse(report.isComplete());
+        assertEquals(3, report.getImported());
+        assertEquals("not an object", reasons(report).get(2L));
+        assertTrue(reasons(report).get(5L).startsWith("unreadable, import stopped"), reasons(report).get(5L));
+        assertEquals(3, appointmentRepository.count());
+    }
+
+    @Test
+    void doctorsAreLinkedToUsersAtMostOnceAndBecomeVisible() {
+        User first = user("import-doctor-1");
+        User second = user("import-doctor-2");
+        // Cache the "not a doctor" answer the import has to invalidate.
+        assertTrue(doctorRepository.findIdByUserId(first.getId()).isEmpty());
+
+        ImportReport report = importService.importDoctors(body(
+                "name,specialty,contact,userId",
+                "Dr. Ada,Cardiology,ada@example.com," + first.getId(),
+                "Dr. Bea,\"Neurology, Paediatric\",,",
+                "Dr. Copy,Cardiology,," + first.getId(),
+                ",Dermatology,,",
+                "Dr. Cy,Dermatology,," + second.getId(),
+                "Dr. Nobody,Dermatology,,-3"), ImportService.Format.CSV);
+
+        assertEquals(3, report.getImported());
+        assertEquals(Map.of(
+                3L, "user " + first.getId() + " already has a doctor profile",
+                4L, "name is required",
+                6L, "unknown user -3"), reasons(report));
+        assertTrue(doctorRepository.findIdByUserId(first.getId()).isPresent());
+        assertEquals(List.of("Neurology, Paediatric"), doctorDirectory.current().getAllDoctors().stream()
+                .filter(view -> view.getName().equals("Dr. Bea")).map(DoctorView::getSpecialty).toList());
+    }
+
+    private static Map<Long, String> reasons(ImportReport report) {
+        return report.getRejected().stream()
+                .collect(Collectors.toMap(ImportReport.Rejection::getRow, ImportReport.Rejection::getReason));
+    }
+
+    private static InputStream body(String... lines) {
+        return new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("x");
+        user.setRoles(Set.of("ROLE_PATIENT"));
+        users.add(userRepository.save(user));
+        return user;
+    }
+}
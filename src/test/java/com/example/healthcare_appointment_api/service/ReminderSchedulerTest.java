@@ -0,0 +1,198 @@
+package com.example.healthcare_appointment_api.service;
+
+import com.example.healthcare_appointment_api.dto.AppointmentView;
+import com.example.healthcare_appointment_api.dto.Reminder;
+import com.example.healthcare_appointment_api.model.Appointment;
+import com.example.healthcare_appointment_api.model.Doctor;
+import com.example.healthcare_appointment_api.model.User;
+import com.example.healthcare_appointment_api.repository.AppointmentRepository;
+import com.example.healthcare_appointment_api.repository.DoctorRepository;
+import com.example.healthcare_appointment_api.repository.UserRepository;
+import com.example.healthcare_appointment_api.security.JwtPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "appointment.reminder.lead-minutes=1",
+        "appointment.reminder.tick-ms=50",
+        "appointment.reminder.retry-ms=200",
+        "appointment.reminder.horizon-hours=1"})
+class ReminderSchedulerTest {
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CapturingSink sink;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User patient;
+    private Doctor doctor;
+
+    @TestConfiguration
+    static class SinkConfig {
+        @Bean
+        CapturingSink capturingSink() {
+            return new CapturingSink();
+        }
+    }
+
+    static class CapturingSink implements ReminderSink {
+        final Queue<Reminder> delivered = new ConcurrentLinkedQueue<>();
+        final AtomicInteger failuresLeft = new AtomicInteger();
+
+        @Override
+        public void deliver(List<Reminder> reminders) {
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("sink unavailable");
+            }
+            delivered.addAll(reminders);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        patient = new User();
+        patient.setUsername("reminder-patient");
+        patient.setPassword("x");
+        patient.setRoles(Set.of("ROLE_PATIENT"));
+        userRepository.save(patient);
+        doctor = new Doctor();
+        doctor.setName("Dr. Reminder");
+        doctor.setSpecialty("General");
+        doctorRepository.save(doctor);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new JwtPrincipal(patient.getId(), patient.getUsername(), "PATIENT", 0L, Long.MAX_VALUE), null, List.of()));
+        sink.delivered.clear();
+        sink.failuresLeft.set(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        appointmentRepository.deleteAllInBatch();
+        doctorRepository.delete(doctor);
+        userRepository.delete(patient);
+    }
+
+    @Test
+    void bookingsAreRemindedTheirLeadTimeAhead() throws InterruptedException {
+        AppointmentView booked = book(LocalDateTime.now().plusSeconds(60).plusNanos(300_000_000));
+
+        await(() -> !sink.delivered.isEmpty());
+        Reminder reminder = sink.delivered.poll();
+        assertEquals(booked.getId(), reminder.getAppointment().getId());
+        assertEquals("reminder-patient", reminder.getAppointment().getPatientUsername());
+        assertEquals(1, reminder.getLeadMinutes());
+    }
+
+    @Test
+    void cancelledBookingsAreNotReminded() throws InterruptedException {
+        AppointmentView booked = book(LocalDateTime.now().plusSeconds(60).plusNanos(300_000_000));
+        reminderScheduler.cancel(booked.getId());
+
+        Thread.sleep(800);
+        assertTrue(sink.delivered.isEmpty());
+        assertEquals(0, reminderScheduler.pending());
+    }
+
+    @Test
+    void aFailedBatchIsDeliveredOnRetry() throws InterruptedException {
+        sink.failuresLeft.set(1);
+        double failedBefore = meterRegistry.get("appointment.reminder.failed").counter().count();
+        AppointmentView booked = book(LocalDateTime.now().plusSeconds(60).plusNanos(200_000_000));
+
+        await(() -> !sink.delivered.isEmpty());
+        assertEquals(booked.getId(), sink.delivered.poll().getAppointment().getId());
+        assertEquals(failedBefore + 1, meterRegistry.get("appointment.reminder.failed").counter().count());
+    }
+
+    @Test
+    void aRestartReloadsWhatIsOwedSinceTheCheckpointAndNothingElse() throws InterruptedException {
+        book(LocalDateTime.now().plusSeconds(60).plusNanos(200_000_000));
+        await(() -> !sink.delivered.isEmpty());
+        // Let the tick that delivered it record the checkpoint.
+        Thread.sleep(200);
+        reminderScheduler.stop();
+        sink.delivered.clear();
+
+        // Booked while the scheduler was down: one that fell due during the downtime, one past the horizon.
+        Appointment missed = insert(LocalDateTime.now().plusSeconds(60));
+        insert(LocalDateTime.now().plusHours(3));
+        Thread.sleep(100);
+        reminderScheduler.start();
+
+        await(() -> !sink.delivered.isEmpty());
+        Thread.sleep(300);
+        assertEquals(List.of(missed.getId()),
+                sink.delivered.stream().map(reminder -> reminder.getAppointment().getId()).toList());
+        assertEquals(0, reminderScheduler.pending());
+    }
+
+    @Test
+    void bookingsCommittedBehindTheCatchUpArePickedUpOnce() throws InterruptedException {
+        // Stands in for a booking from another instance whose id was passed before it committed.
+        Appointment late = insert(LocalDateTime.now().plusSeconds(60).plusNanos(300_000_000));
+        ReflectionTestUtils.setField(reminderScheduler, "lastSeenId", late.getId());
+
+        reminderScheduler.refresh();
+        reminderScheduler.refresh();
+        assertEquals(1, reminderScheduler.pending());
+
+        await(() -> !sink.delivered.isEmpty());
+        reminderScheduler.refresh();
+        Thread.sleep(300);
+        assertEquals(List.of(late.getId()),
+                sink.delivered.stream().map(reminder -> reminder.getAppointment().getId()).toList());
+    }
+
+    private AppointmentView book(LocalDateTime time) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setAppointmentTime(time);
+        return appointmentService.bookAppointment(appointment);
+    }
+
+    private Appointment insert(LocalDateTime time) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setAppointmentTime(time);
+        appointment.setStatus("PENDING");
+        return appointmentRepository.save(appointment);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int attempt = 0; attempt < 250 && !condition.getAsBoolean(); attempt++) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean(), "timed out");
+    }
+}
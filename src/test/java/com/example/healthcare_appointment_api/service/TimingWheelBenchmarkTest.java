@@ -0,0 +1,69 @@
+package com.example.healthcare_appointment_api.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fills a wheel shaped like ReminderScheduler's (1 s ticks, 512 slots, 48 h horizon) with millions
+ * of timers, then reports heap per pending timer, schedule and cancel rates, and the cost of
+ * draining it tick by tick. Run with {@code mvn test -Pbenchmark -Dtest=TimingWheelBenchmarkTest
+ * -Dreminder.timers=10000000}; give the JVM heap to match.
+ */
+@Tag("benchmark")
+class TimingWheelBenchmarkTest {
+    private static final int TIMERS = Integer.getInteger("reminder.timers", 5_000_000);
+    private static final long TICK = 1_000;
+    private static final long HORIZON = TimeUnit.HOURS.toMillis(48);
+
+    @Test
+    void millionsOfPendingTimers() {
+        Random random = new Random(1);
+        long[] deadlines = new long[TIMERS];
+        for (int i = 0; i < TIMERS; i++) {
+            deadlines[i] = 1 + (long) (random.nextDouble() * HORIZON);
+        }
+        long heapBefore = usedHeap();
+        TimingWheel wheel = new TimingWheel(TICK, 512, 3, 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMERS; i++) {
+            wheel.schedule((i + 1L) << 3, deadlines[i]);
+        }
+        long scheduleNanos = System.nanoTime() - start;
+        long heap = usedHeap() - heapBefore;
+
+        start = System.nanoTime();
+        for (int i = 0; i < TIMERS; i += 10) {
+            wheel.cancel((i + 1L) << 3);
+        }
+        long cancelNanos = System.nanoTime() - start;
+        int pending = wheel.size();
+
+        long[] fired = new long[1];
+        start = System.nanoTime();
+        wheel.advance(HORIZON + TICK, key -> fired[0]++);
+        long drainNanos = System.nanoTime() - start;
+
+        System.out.printf("%,d timers over %d h%n", TIMERS, TimeUnit.MILLISECONDS.toHours(HORIZON));
+        System.out.printf("heap            %,d MB (%.1f bytes per timer)%n", heap >> 20, (double) heap / TIMERS);
+        System.out.printf("schedule        %,.0f per second%n", TIMERS / (scheduleNanos / 1e9));
+        System.out.printf("cancel 10%%      %,.0f per second%n", TIMERS / 10 / (cancelNanos / 1e9));
+        System.out.printf("drain %,d ticks %,.0f ms (%,.0f timers per second)%n",
+                HORIZON / TICK, drainNanos / 1e6, fired[0] / (drainNanos / 1e9));
+        assertEquals(pending, fired[0]);
+        assertEquals(0, wheel.size());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
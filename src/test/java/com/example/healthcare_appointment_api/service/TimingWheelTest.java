@@ -0,0 +1,124 @@
+package com.example.healthcare_appointment_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+    private static final long TICK = 10;
+
+    @Test
+    void keysFireOnTheTickAfterTheirDeadlineAtEveryLevel() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, 3, 0);
+        // Level 0 covers 80 ms, level 1 640 ms, level 2 5120 ms.
+        wheel.schedule(1, 5);
+        wheel.schedule(2, 75);
+        wheel.schedule(3, 300);
+        wheel.schedule(4, 4_000);
+
+        assertEquals(List.of(), advance(wheel, 9));
+        assertEquals(List.of(1L), advance(wheel, 10));
+        assertEquals(List.of(), advance(wheel, 79));
+        assertEquals(List.of(2L), advance(wheel, 80));
+        assertEquals(List.of(), advance(wheel, 309));
+        assertEquals(List.of(3L), advance(wheel, 310));
+        assertEquals(List.of(), advance(wheel, 4_009));
+        assertEquals(List.of(4L), advance(wheel, 4_010));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledAndRescheduledKeysFireOnlyForTheirLatestDeadline() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, 3, 0);
+        wheel.schedule(1, 500);
+        wheel.schedule(2, 500);
+        wheel.schedule(2, 900);
+        wheel.schedule(3, 100);
+        assertTrue(wheel.cancel(3));
+        wheel.schedule(3, 100);
+        assertTrue(wheel.cancel(1));
+
+        assertEquals(List.of(3L), advance(wheel, 600));
+        assertFalse(wheel.isScheduled(1));
+        assertEquals(List.of(2L), advance(wheel, 1_000));
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvanceAndFarOnesAreRefused() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, 2, 1_000);
+        assertTrue(wheel.schedule(1, 10));
+        assertFalse(wheel.schedule(2, wheel.reach() + 1));
+        assertTrue(wheel.schedule(3, wheel.reach()));
+
+        assertEquals(List.of(1L), advance(wheel, 1_000));
+        assertEquals(List.of(3L), advance(wheel, wheel.reach() + TICK));
+    }
+
+    @Test
+    void matchesAReferenceModelUnderRandomOperations() {
+        Random random = new Random(42);
+        long start = 1_000_003;
+        TimingWheel wheel = new TimingWheel(TICK, 16, 3, start);
+        Map<Long, Long> expected = new HashMap<>();
+        long now = start;
+        for (int round = 0; round < 2_000; round++) {
+            for (int op = 0; op < 20; op++) {
+                long key = 1 + random.nextInt(5_000);
+                if (random.nextInt(5) == 0) {
+                    assertEquals(expected.remove(key) != null, wheel.cancel(key));
+                } else {
+                    long deadline = now - 50 + random.nextInt(30_000);
+                    assertTrue(wheel.schedule(key, deadline));
+                    expected.put(key, deadline);
+                }
+            }
+            now += random.nextInt(40);
+            long firedBefore = Math.floorDiv(now, TICK) * TICK;
+            List<Long> fired = advance(wheel, now);
+            for (long key : fired) {
+                assertTrue(expected.remove(key) < firedBefore, "key " + key + " fired early");
+            }
+            expected.values().forEach(deadline -> assertTrue(deadline >= firedBefore, "a due key was not fired"));
+            assertEquals(expected.size(), wheel.size());
+        }
+    }
+
+    @Test
+    void mapSurvivesCollisionsRemovalsAndShrinking() {
+        TimingWheel.LongLongMap map = new TimingWheel.LongLongMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(20_000) * 1024L;
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            } else {
+                assertEquals(expected.getOrDefault(key, Long.MIN_VALUE), map.remove(key));
+                expected.remove(key);
+            }
+            if (i == 150_000) {
+                new ArrayList<>(expected.keySet()).forEach(k -> {
+                    map.remove(k);
+                    expected.remove(k);
+                });
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+
+    private static List<Long> advance(TimingWheel wheel, long now) {
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(now, fired::add);
+        return fired;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.healthcare_appointment_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserServiceRolesTest {
+
+    @Test
+    void registrationDefaultsToPatientAndAcceptsDoctor() {
+        assertEquals(Set.of("ROLE_PATIENT"), UserService.normalizeRoles(null));
+        assertEquals(Set.of("ROLE_PATIENT"), UserService.normalizeRoles(Set.of()));
+        assertEquals(Set.of("ROLE_DOCTOR"), UserService.normalizeRoles(Set.of("doctor")));
+        assertEquals(Set.of("ROLE_PATIENT"), UserService.normalizeRoles(Set.of("ROLE_PATIENT")));
+    }
+
+    @Test
+    void registrationRejectsAdminInAnySpelling() {
+        assertThrows(InvalidRegistrationException.class, () -> UserService.normalizeRoles(Set.of("ADMIN")));
+        assertThrows(InvalidRegistrationException.class, () -> UserService.normalizeRoles(Set.of("role_admin")));
+        assertThrows(InvalidRegistrationException.class, () -> UserService.normalizeRoles(Set.of("PATIENT", "ADMIN")));
+    }
+}